@@ -0,0 +1,75 @@
+package bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import puzzle.Puzzle;
+import ui.PuzzleGenerator;
+
+/**
+ * Runs the JMH benchmarks of the solvers, verifier and file io, and holds the boards they share.
+ * Results are printed and written as JSON.
+ * 
+ * Usage: Benchmarks [JMH options] [regex], where regex picks the benchmarks to run by name and the
+ * options are those of JMH's own runner, e.g. -f forks, -wi warmup iterations, -i iterations, -p
+ * param=values. Results go to benchmark-results.json unless -rff gives another file. Run from the
+ * project directory so the test puzzles can be found.
+ * 
+ * @author coatrain
+ * 
+ */
+public class Benchmarks {
+
+  public static final String defaultOutputLocation = "benchmark-results.json";
+  public static final long seed = 42;
+
+  public static void main(String[] args) throws RunnerException {
+    CommandLineOptions options;
+    try {
+      options = new CommandLineOptions(args);
+    } catch (CommandLineOptionException e) {
+      System.err.println(e.getMessage());
+      return;
+    }
+    OptionsBuilder builder = new OptionsBuilder();
+    builder.parent(options);
+    if (!options.getResultFormat().hasValue())
+      builder.resultFormat(ResultFormatType.JSON);
+    if (!options.getResult().hasValue())
+      builder.result(defaultOutputLocation);
+    new Runner(builder.build()).run();
+  }
+
+  /**
+   * Creates a puzzle with the numbers of a random board and a blank board, for solving
+   * 
+   * @param rows number of rows
+   * @param cols number of columns
+   * @param density chance of each square being filled in
+   * @param seed seed of the random board
+   * @return a puzzle with nothing filled in
+   */
+  public static Puzzle blankPuzzle(int rows, int cols, double density, long seed) {
+    return new Puzzle(randomPuzzle(rows, cols, density, seed).clues, false);
+  }
+
+  /**
+   * Creates a puzzle from a random board
+   * 
+   * @param rows number of rows
+   * @param cols number of columns
+   * @param density chance of each square being filled in
+   * @param seed seed of the random board
+   * @return a puzzle with the random board filled in
+   */
+  public static Puzzle randomPuzzle(int rows, int cols, double density, long seed) {
+    int[] board = new PuzzleGenerator(rows, cols, density, seed, false).board(0, 0);
+    Puzzle p = Puzzle.boardToPuzzle(board, cols, rows);
+    p.setBoard(board);
+    return p;
+  }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import puzzle.Puzzle;
+import solver.BruteForceSolver;
+import ui.FileHandler;
+
+/**
+ * Benchmarks finding every solution of the test puzzles by guessing alone
+ * 
+ * @author coatrain
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BruteForceSolverBenchmark {
+
+  @Param({"5x5", "multiLarge"})
+  String puzzle;
+
+  Puzzle p;
+
+  @Setup
+  public void setUp() {
+    p = FileHandler.getFilePuzzle("testPuzzles/" + puzzle + ".txt");
+  }
+
+  @Benchmark
+  public List<Puzzle> findSolutions() {
+    return BruteForceSolver.findSolutions(p.createCopy());
+  }
+}
@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import solver.DeductiveSolver;
+
+/**
+ * Benchmarks finding where a number fits in a random, partly filled in and crossed out line
+ * 
+ * @author coatrain
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FillableBenchmark {
+
+  @Param({"50"})
+  int length;
+
+  @Param({"4"})
+  int number;
+
+  int[] line;
+
+  @Setup
+  public void setUp() {
+    line = new int[length];
+    Random random = new Random(Benchmarks.seed);
+    for (int i = 0; i < line.length; i++) {
+      line[i] = random.nextInt(4) == 0 ? 2 : random.nextInt(3) == 0 ? 1 : 0;
+    }
+  }
+
+  @Benchmark
+  public int findLeftmostFillable() {
+    return DeductiveSolver.findLeftmostFillable(line, number, 0);
+  }
+
+  @Benchmark
+  public int findRightmostFillable() {
+    return DeductiveSolver.findRightmostFillable(line, number, line.length - 1);
+  }
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import puzzle.Puzzle;
+import solver.HybridSolver;
+
+/**
+ * Benchmarks full solves of random puzzles by propagating and guessing, each on a fresh copy of a
+ * blank board. Sparse boards take far longer: 30x30 at a density of 0.4 takes hundreds of thousands
+ * of guesses, so it is left out of the defaults and can be run with -p density=0.4.
+ * 
+ * @author coatrain
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HybridSolverBenchmark {
+
+  @Param({"10", "20", "30"})
+  int size;
+
+  @Param({"0.5", "0.6"})
+  double density;
+
+  Puzzle p;
+
+  @Setup
+  public void setUp() {
+    p = Benchmarks.blankPuzzle(size, size, density, Benchmarks.seed);
+  }
+
+  @Benchmark
+  public Puzzle findSolution() {
+    return HybridSolver.findSolution(p.createCopy());
+  }
+}
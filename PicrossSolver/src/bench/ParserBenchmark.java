@@ -0,0 +1,71 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+import ui.PuzzleParser;
+
+/**
+ * Benchmarks reading text puzzles, one file at a time through FileHandler and as a stream of many
+ * puzzles through PuzzleParser
+ * 
+ * @author coatrain
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParserBenchmark {
+
+  @Param({"1000"})
+  int puzzles;
+
+  byte[] text;
+
+  @Setup
+  public void setUp() throws IOException {
+    // A stream of the same puzzle many times over
+    byte[] one = Files.readAllBytes(Paths.get("testPuzzles/5x5.txt"));
+    text = new byte[(one.length + 2) * puzzles];
+    for (int i = 0; i < puzzles; i++) {
+      System.arraycopy(one, 0, text, i * (one.length + 2), one.length);
+      text[i * (one.length + 2) + one.length] = '\r';
+      text[i * (one.length + 2) + one.length + 1] = '\n';
+    }
+  }
+
+  @Benchmark
+  public Puzzle getFilePuzzle() {
+    return FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  }
+
+  @Benchmark
+  public int parseStream() throws IOException {
+    PuzzleParser parser = new PuzzleParser(new ByteArrayInputStream(text));
+    int count = 0;
+    while (parser.nextClues() != null) {
+      count++;
+    }
+    return count;
+  }
+}
@@ -0,0 +1,50 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import puzzle.Puzzle;
+
+/**
+ * Benchmarks copying the boards of random puzzles, packed and unpacked
+ * 
+ * @author coatrain
+ * 
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PuzzleBenchmark {
+
+  @Param({"5", "25", "50"})
+  int size;
+
+  @Param({"false", "true"})
+  boolean packed;
+
+  Puzzle p;
+
+  @Setup
+  public void setUp() {
+    p = Benchmarks.randomPuzzle(size, size, 0.5, Benchmarks.seed).createCopy(packed);
+  }
+
+  @Benchmark
+  public Puzzle createCopy() {
+    return p.createCopy();
+  }
+}
@@ -0,0 +1,286 @@
+package puzzle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import solver.PuzzleVerifier;
+
+/**
+ * Immutable, compact storage for the numbers on the edges of a puzzle. Numbers for every line are
+ * kept in one flat array, with the numbers for line l starting at offset(l). Lines 0 to rows - 1
+ * are rows, and lines rows to rows + cols - 1 are columns. Sums and minimum lengths of each line
+ * are computed once so solvers don't need to walk the numbers again. Clues are checked when they
+ * are created, so any number of boards and threads can share them without checking again.
+ *
+ * @author coatrain
+ *
+ */
+public final class Clues {
+
+  public final int rows;
+  public final int cols;
+
+  private final int[] nums;
+  private final int[] offsets;
+  private final int[] sums;
+  private final int[] minLengths;
+  private final int hash;
+
+  /**
+   * Copies the given column and row numbers into compact storage
+   * 
+   * @param colNums numbers for each column, top to bottom
+   * @param rowNums numbers for each row, left to right
+   */
+  public Clues(ArrayList<ArrayList<Integer>> colNums, ArrayList<ArrayList<Integer>> rowNums) {
+    this(rowNums.size(), colNums.size(), offsets(colNums, rowNums), nums(colNums, rowNums));
+  }
+
+  /**
+   * Creates clues from numbers already in flat storage. The arrays are used as given, not copied.
+   */
+  private Clues(int rows, int cols, int[] offsets, int[] nums) {
+    this.rows = rows;
+    this.cols = cols;
+    this.offsets = offsets;
+    this.nums = nums;
+    int lines = rows + cols;
+    sums = new int[lines];
+    minLengths = new int[lines];
+    for (int l = 0; l < lines; l++) {
+      for (int i = offsets[l]; i < offsets[l + 1]; i++) {
+        sums[l] += nums[i];
+      }
+      // Numbers need their squares plus a gap between each
+      minLengths[l] = count(l) == 0 ? 0 : sums[l] + count(l) - 1;
+    }
+    hash = 31 * (31 * (31 * rows + cols) + Arrays.hashCode(offsets)) + Arrays.hashCode(nums);
+    if (!PuzzleVerifier.isValidClues(this))
+      throw new IllegalStateException("Given Board Cannot be solved!");
+  }
+
+  /**
+   * Creates clues from numbers in flat storage, with every row's numbers followed by every
+   * column's. The arrays are copied, so callers may reuse them.
+   * 
+   * @param rows number of rows
+   * @param cols number of columns
+   * @param counts how many numbers each line has, rows then columns
+   * @param nums every line's numbers in order, any past the total of counts are ignored
+   * @return clues with the given numbers
+   * @throws IllegalStateException if there are fewer numbers than counted, a number isn't
+   *         positive, or the numbers can't be solved
+   */
+  public static Clues fromArrays(int rows, int cols, int[] counts, int[] nums)
+      throws IllegalStateException {
+    if (rows < 0 || cols < 0 || counts.length != rows + cols)
+      throw new IllegalStateException("Given Board Cannot be solved!");
+    int[] offsets = new int[counts.length + 1];
+    for (int l = 0; l < counts.length; l++) {
+      if (counts[l] < 0)
+        throw new IllegalStateException("Given Board Cannot be solved!");
+      offsets[l + 1] = offsets[l] + counts[l];
+    }
+    int total = offsets[counts.length];
+    if (total > nums.length)
+      throw new IllegalStateException("Given Board Cannot be solved!");
+    for (int i = 0; i < total; i++) {
+      if (nums[i] <= 0)
+        throw new IllegalStateException("Given Board Cannot be solved!");
+    }
+    return new Clues(rows, cols, offsets, Arrays.copyOf(nums, total));
+  }
+
+  /**
+   * Finds where each line's numbers start in flat storage
+   */
+  private static int[] offsets(ArrayList<ArrayList<Integer>> colNums,
+      ArrayList<ArrayList<Integer>> rowNums) {
+    int lines = rowNums.size() + colNums.size();
+    int[] ret = new int[lines + 1];
+    for (int l = 0; l < lines; l++) {
+      ret[l + 1] = ret[l] + list(colNums, rowNums, l).size();
+    }
+    return ret;
+  }
+
+  /**
+   * Copies every line's numbers into flat storage
+   */
+  private static int[] nums(ArrayList<ArrayList<Integer>> colNums,
+      ArrayList<ArrayList<Integer>> rowNums) {
+    int lines = rowNums.size() + colNums.size();
+    int size = 0;
+    for (int l = 0; l < lines; l++) {
+      size += list(colNums, rowNums, l).size();
+    }
+    int[] ret = new int[size];
+    int i = 0;
+    for (int l = 0; l < lines; l++) {
+      for (int num : list(colNums, rowNums, l)) {
+        ret[i++] = num;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the list of numbers for a line
+   */
+  private static ArrayList<Integer> list(ArrayList<ArrayList<Integer>> colNums,
+      ArrayList<ArrayList<Integer>> rowNums, int line) {
+    return line < rowNums.size() ? rowNums.get(line) : colNums.get(line - rowNums.size());
+  }
+
+  /**
+   * Gets the total number of lines
+   * 
+   * @return rows + cols
+   */
+  public int lines() {
+    return rows + cols;
+  }
+
+  /**
+   * Gets the number of squares in a line
+   * 
+   * @param line line index
+   * @return cols for a row, rows for a column
+   */
+  public int length(int line) {
+    return line < rows ? cols : rows;
+  }
+
+  /**
+   * Gets the position on the board of a line's first square
+   * 
+   * @param line line index
+   * @return position of the leftmost square of a row or the top square of a column
+   */
+  public int firstSquare(int line) {
+    return line < rows ? line * cols : line - rows;
+  }
+
+  /**
+   * Gets the distance on the board between consecutive squares of a line
+   * 
+   * @param line line index
+   * @return 1 for a row, cols for a column
+   */
+  public int step(int line) {
+    return line < rows ? 1 : cols;
+  }
+
+  /**
+   * Gets where a line's numbers start in the flat array
+   * 
+   * @param line line index
+   * @return index of the line's first number
+   */
+  public int offset(int line) {
+    return offsets[line];
+  }
+
+  /**
+   * Gets how many numbers a line has
+   * 
+   * @param line line index
+   * @return number of numbers on the edge of the line
+   */
+  public int count(int line) {
+    return offsets[line + 1] - offsets[line];
+  }
+
+  /**
+   * Gets one of a line's numbers
+   * 
+   * @param line line index
+   * @param i index of the number within the line
+   * @return the ith number of the line
+   */
+  public int get(int line, int i) {
+    return nums[offsets[line] + i];
+  }
+
+  /**
+   * Gets the total of a line's numbers
+   * 
+   * @param line line index
+   * @return number of filled in squares in the line
+   */
+  public int sum(int line) {
+    return sums[line];
+  }
+
+  /**
+   * Gets the fewest squares a line's numbers fit in
+   * 
+   * @param line line index
+   * @return squares needed by the numbers plus a gap between each, 0 if there are no numbers
+   */
+  public int minLength(int line) {
+    return minLengths[line];
+  }
+
+  /**
+   * Creates new lists of the numbers for each row
+   * 
+   * @return row numbers in the format of Puzzle.rowNums
+   */
+  public ArrayList<ArrayList<Integer>> rowNumsList() {
+    ArrayList<ArrayList<Integer>> ret = new ArrayList<ArrayList<Integer>>(rows);
+    for (int row = 0; row < rows; row++) {
+      ret.add(lineList(row));
+    }
+    return ret;
+  }
+
+  /**
+   * Creates new lists of the numbers for each column
+   * 
+   * @return column numbers in the format of Puzzle.colNums
+   */
+  public ArrayList<ArrayList<Integer>> colNumsList() {
+    ArrayList<ArrayList<Integer>> ret = new ArrayList<ArrayList<Integer>>(cols);
+    for (int col = 0; col < cols; col++) {
+      ret.add(lineList(rows + col));
+    }
+    return ret;
+  }
+
+  /**
+   * Creates a new list of the numbers for a line
+   */
+  private ArrayList<Integer> lineList(int line) {
+    ArrayList<Integer> ret = new ArrayList<Integer>(count(line));
+    for (int i = 0; i < count(line); i++) {
+      ret.add(get(line, i));
+    }
+    return ret;
+  }
+
+  /**
+   * Copies the flat array of numbers, for solvers that pass it to a line solver
+   * 
+   * @return a copy of every line's numbers, indexed by offset
+   */
+  public int[] copyNums() {
+    return Arrays.copyOf(nums, nums.length);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj)
+      return true;
+    if (obj == null || getClass() != obj.getClass())
+      return false;
+    Clues other = (Clues) obj;
+    return rows == other.rows && cols == other.cols && hash == other.hash
+        && Arrays.equals(offsets, other.offsets) && Arrays.equals(nums, other.nums);
+  }
+}
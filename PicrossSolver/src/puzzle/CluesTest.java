@@ -0,0 +1,134 @@
+package puzzle;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class CluesTest {
+
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle partial = FileHandler.getFilePuzzle("testPuzzles/partial.txt");
+
+  /**
+   * Test method for {@link puzzle.Clues#Clues(java.util.ArrayList, java.util.ArrayList)}.
+   */
+  @Test
+  public void testClues() {
+    Clues clues = small.clues;
+    assertTrue(clues.rows == 5);
+    assertTrue(clues.cols == 5);
+    assertTrue(clues.lines() == 10);
+
+    // Row 1 is 1 3
+    assertTrue(clues.count(1) == 2);
+    assertTrue(clues.get(1, 0) == 1);
+    assertTrue(clues.get(1, 1) == 3);
+    assertTrue(clues.sum(1) == 4);
+    assertTrue(clues.minLength(1) == 5);
+
+    // Column 0 is 2 2
+    assertTrue(clues.count(5) == 2);
+    assertTrue(clues.get(5, 1) == 2);
+    assertTrue(clues.minLength(5) == 5);
+
+    // Numbers are stored one line after another
+    int[] nums = clues.copyNums();
+    assertTrue(Arrays.equals(nums, new int[] {3,1,3,2,1,1,2,2,2,1,1,2,2,3}));
+    assertTrue(clues.offset(1) == 1);
+    assertTrue(clues.offset(9) == nums.length - 1);
+    nums[0] = 5;
+    assertTrue(clues.get(0, 0) == 3);
+
+    // Empty lines
+    assertTrue(partial.clues.count(1) == 0);
+    assertTrue(partial.clues.sum(1) == 0);
+    assertTrue(partial.clues.minLength(1) == 0);
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#firstSquare(int)} and {@link puzzle.Clues#step(int)}.
+   */
+  @Test
+  public void testLineSquares() {
+    // Partial has 4 rows and 2 columns
+    Clues clues = partial.clues;
+    assertTrue(clues.length(3) == 2);
+    assertTrue(clues.firstSquare(3) == 6);
+    assertTrue(clues.step(3) == 1);
+    assertTrue(clues.length(5) == 4);
+    assertTrue(clues.firstSquare(5) == 1);
+    assertTrue(clues.step(5) == 2);
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#equals(java.lang.Object)}.
+   */
+  @Test
+  public void testEquals() {
+    Puzzle other = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+    assertTrue(small.clues.equals(other.clues));
+    assertTrue(small.clues.hashCode() == other.clues.hashCode());
+    assertFalse(small.clues.equals(partial.clues));
+    assertFalse(small.clues.equals(null));
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#Clues(java.util.ArrayList, java.util.ArrayList)} with
+   * numbers that can't be solved.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testCluesInvalid() {
+    ArrayList<ArrayList<Integer>> rows = small.clues.rowNumsList();
+    rows.get(0).add(1);
+    new Clues(small.clues.colNumsList(), rows);
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#fromArrays(int, int, int[], int[])}.
+   */
+  @Test
+  public void testFromArrays() {
+    int[] counts = new int[10];
+    int[] nums = small.clues.copyNums();
+    for (int l = 0; l < 10; l++) {
+      counts[l] = small.clues.count(l);
+    }
+    Clues clues = Clues.fromArrays(5, 5, counts, nums);
+    assertTrue(clues.equals(small.clues));
+    // Arrays are copied, and extra numbers ignored
+    nums[0] = 5;
+    assertTrue(clues.equals(small.clues));
+    nums[0] = small.clues.get(0, 0);
+    assertTrue(Clues.fromArrays(5, 5, counts, Arrays.copyOf(nums, 30)).equals(clues));
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#fromArrays(int, int, int[], int[])} with fewer numbers
+   * than counted.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testFromArraysInvalid() {
+    Clues.fromArrays(1, 1, new int[] {1, 1}, new int[] {1});
+  }
+
+  /**
+   * Test method for {@link puzzle.Clues#rowNumsList()} and {@link puzzle.Clues#colNumsList()}.
+   */
+  @Test
+  public void testNumsList() {
+    assertTrue(small.clues.rowNumsList().equals(small.rowNums));
+    assertTrue(small.clues.colNumsList().equals(small.colNums));
+    assertFalse(small.clues.rowNumsList() == small.clues.rowNumsList());
+    assertTrue(partial.clues.rowNumsList().get(1).isEmpty());
+  }
+}
@@ -2,8 +2,8 @@ package puzzle;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-
-import solver.PuzzleVerifier;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Class to hold a representation of the puzzle and current board state
@@ -13,9 +13,11 @@ import solver.PuzzleVerifier;
  */
 public class Puzzle {
   // These represent the series of numbers on the edge of the board denoting the numbers of filled
-  // in squares
-  public final ArrayList<ArrayList<Integer>> colNums;
-  public final ArrayList<ArrayList<Integer>> rowNums;
+  // in squares. Read only views built from clues, so they can't drift from what solvers read.
+  public final List<List<Integer>> colNums;
+  public final List<List<Integer>> rowNums;
+  // Compact copy of colNums and rowNums for solvers to read
+  public final Clues clues;
 
   public final int rows;
   public final int cols;
@@ -23,10 +25,25 @@ public class Puzzle {
   /**
    * Board that the user guesses on. Row determined by pos/cols. Column determined by pos%cols.
    * Integers represent different states: 0 is an unsure / default blank square 1 is a guessed
-   * filled in square 2 is a guessed crossed out / guessed blank square
+   * filled in square 2 is a guessed crossed out / guessed blank square. Null if the puzzle is
+   * packed.
    */
   private int[] board;
 
+  /**
+   * Packed board, used instead of board when the puzzle is packed. Bit pos%64 of word pos/64 is set
+   * in filled if the square is filled in, and in crossed if it is crossed out. Squares set in
+   * neither are unsure.
+   */
+  private long[] filled;
+  private long[] crossed;
+
+  /**
+   * Zobrist hash of the board: the xor of a random key for every square that is filled in or
+   * crossed out, updated as squares are set so it never needs to walk the board
+   */
+  private long zobrist = 0;
+
   /**
    * Initialize the puzzle with given column and row numbers, and a blank board
    * 
@@ -36,31 +53,140 @@ public class Puzzle {
    */
   public Puzzle(ArrayList<ArrayList<Integer>> colNums, ArrayList<ArrayList<Integer>> rowNums)
       throws IllegalStateException {
+    this(colNums, rowNums, false);
+  }
+
+  /**
+   * Initialize the puzzle with given column and row numbers, and a blank board that is optionally
+   * stored packed as two bitsets instead of one int per square
+   * 
+   * @param colNums
+   * @param rowNums
+   * @param packed true if the board should be stored packed
+   * @throws IllegalStateException throws exception if given puzzle is determined unsolvable
+   */
+  public Puzzle(ArrayList<ArrayList<Integer>> colNums, ArrayList<ArrayList<Integer>> rowNums,
+      boolean packed) throws IllegalStateException {
+    // Clues check that the numbers could be solved
+    this(new Clues(colNums, rowNums), packed);
+  }
+
+  /**
+   * Initialize the puzzle with a blank board for given clues, which were already checked when they
+   * were created
+   * 
+   * @param clues numbers on the edges of the puzzle
+   * @param packed true if the board should be stored packed
+   */
+  public Puzzle(Clues clues, boolean packed) {
+    this(clues, readOnly(clues.colNumsList()), readOnly(clues.rowNumsList()), packed);
+  }
+
+  /**
+   * Initialize the puzzle with a blank board, sharing already checked clues and read only lists
+   */
+  private Puzzle(Clues clues, List<List<Integer>> colNums, List<List<Integer>> rowNums,
+      boolean packed) {
     this.colNums = colNums;
     this.rowNums = rowNums;
-    cols = colNums.size();
-    rows = rowNums.size();
-    board = new int[cols * rows];
-    if (!PuzzleVerifier.isValidPuzzle(this))
-      throw new IllegalStateException("Given Board Cannot be solved!");
+    this.clues = clues;
+    cols = clues.cols;
+    rows = clues.rows;
+    if (packed) {
+      filled = new long[wordsFor(cols * rows)];
+      crossed = new long[filled.length];
+    } else {
+      board = new int[cols * rows];
+    }
+  }
+
+  /**
+   * Wraps lists of numbers so neither the outer list nor any line can be changed
+   */
+  private static List<List<Integer>> readOnly(ArrayList<ArrayList<Integer>> lists) {
+    List<List<Integer>> ret = new ArrayList<List<Integer>>(lists.size());
+    for (ArrayList<Integer> list : lists) {
+      ret.add(Collections.unmodifiableList(list));
+    }
+    return Collections.unmodifiableList(ret);
+  }
+
+  /**
+   * Number of longs needed to hold one bit per square
+   * 
+   * @param squares number of squares on the board
+   * @return number of words for a packed board
+   */
+  private static int wordsFor(int squares) {
+    return (squares + 63) >>> 6;
+  }
+
+  /**
+   * Determines whether the board is stored packed
+   * 
+   * @return true if the board is stored as bitsets, false if stored as an int per square
+   */
+  public boolean isPacked() {
+    return board == null;
   }
 
   /**
-   * Gets the entire board
+   * Gets a copy of the entire board, unpacked if the puzzle is packed. Changes to it are not
+   * reflected in the puzzle, so they can't leave the puzzle's hash out of date.
    * 
    * @return the state of the board
    */
   public int[] getBoard() {
-    return board;
+    if (board != null)
+      return Arrays.copyOf(board, board.length);
+    int[] ret = new int[rows * cols];
+    for (int pos = 0; pos < ret.length; pos++) {
+      ret[pos] = getSquare(pos);
+    }
+    return ret;
   }
 
   /**
-   * Sets the current board state to given board state
+   * Gets the value of a single square without unpacking the board
+   * 
+   * @param pos position in board array
+   * @return 0 if unsure, 1 if filled in, 2 if crossed out
+   */
+  public int getSquare(int pos) {
+    if (board != null)
+      return board[pos];
+    long bit = 1L << pos;
+    if ((filled[pos >>> 6] & bit) != 0)
+      return 1;
+    if ((crossed[pos >>> 6] & bit) != 0)
+      return 2;
+    return 0;
+  }
+
+  /**
+   * Sets the current board state to given board state. The given board is copied, or packed into
+   * the puzzle's bitsets if the puzzle is packed, so later changes to it are not reflected in the
+   * puzzle.
    * 
    * @param board given board state
    */
   public void setBoard(int[] board) {
-    this.board = board;
+    zobrist = 0;
+    for (int pos = 0; pos < board.length; pos++) {
+      zobrist ^= zobristKey(pos, board[pos]);
+    }
+    if (this.board != null) {
+      this.board = Arrays.copyOf(board, board.length);
+      return;
+    }
+    Arrays.fill(filled, 0L);
+    Arrays.fill(crossed, 0L);
+    for (int pos = 0; pos < board.length; pos++) {
+      if (board[pos] == 1)
+        filled[pos >>> 6] |= 1L << pos;
+      else if (board[pos] == 2)
+        crossed[pos >>> 6] |= 1L << pos;
+    }
   }
 
   /**
@@ -73,10 +199,48 @@ public class Puzzle {
   public void setBoard(int val, int pos) throws ArrayIndexOutOfBoundsException {
     if (pos >= rows * cols)
       throw new ArrayIndexOutOfBoundsException("Position past end of board");
-    board[pos] = val;
+    zobrist ^= zobristKey(pos, getSquare(pos)) ^ zobristKey(pos, val);
+    if (board != null) {
+      board[pos] = val;
+      return;
+    }
+    int word = pos >>> 6;
+    long bit = 1L << pos;
+    filled[word] &= ~bit;
+    crossed[word] &= ~bit;
+    if (val == 1)
+      filled[word] |= bit;
+    else if (val == 2)
+      crossed[word] |= bit;
   }
 
+  /**
+   * Gets the Zobrist hash of the board. Boards with the same squares have the same hash however
+   * they were reached, and changing one square only takes two xors. The board is only changed
+   * through setBoard, so the hash is always up to date.
+   * 
+   * @return 64 bit hash of the board, 0 for a blank board
+   */
+  public long zobristHash() {
+    return zobrist;
+  }
 
+  /**
+   * Gets the random key for a square holding a value, mixing the position and value with the
+   * SplitMix64 finalizer so no table of keys needs to be stored
+   * 
+   * @param pos position in board array
+   * @param val value of the square
+   * @return key to xor into the hash, 0 for an unsure square
+   */
+  private static long zobristKey(int pos, int val) {
+    if (val == 0)
+      return 0;
+    long z = ((long) pos << 2 | val) * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
 
   /**
    * Return the first uncertain square
@@ -84,6 +248,17 @@ public class Puzzle {
    * @return the first uncertain square, or a negative if all full
    */
   public int getFirstBlankPos() {
+    if (board == null) {
+      // Check 64 squares at a time for one that is in neither bitset
+      for (int word = 0; word < filled.length; word++) {
+        long known = filled[word] | crossed[word];
+        if (known != -1L) {
+          int pos = (word << 6) + Long.numberOfTrailingZeros(~known);
+          return pos < rows * cols ? pos : -1;
+        }
+      }
+      return -1;
+    }
     for (int pos = 0; pos < board.length; pos++) {
       if (board[pos] == 0)
         return pos;
@@ -92,15 +267,36 @@ public class Puzzle {
   }
 
   /**
-   * Returns a new copy of this puzzle. colNums and rowNums will still reference same arraylist, but
-   * board will reference a second copy of the board. Allows for manipulating puzzle differently for
-   * each copy.
+   * Returns a new copy of this puzzle. colNums, rowNums and clues will still reference the same
+   * objects and aren't checked again, but board will reference a second copy of the board. Allows
+   * for manipulating puzzle differently for each copy.
    * 
    * @return a copy of this puzzle
    */
   public Puzzle createCopy() {
-    Puzzle p = new Puzzle(colNums, rowNums);
-    p.board = Arrays.copyOf(board, board.length);
+    return createCopy(isPacked());
+  }
+
+  /**
+   * Returns a new copy of this puzzle, converting the board to or from packed storage as needed.
+   * 
+   * @param packed true if the copy should store its board packed
+   * @return a copy of this puzzle
+   */
+  public Puzzle createCopy(boolean packed) {
+    Puzzle p = new Puzzle(clues, colNums, rowNums, packed);
+    if (packed && isPacked()) {
+      p.filled = Arrays.copyOf(filled, filled.length);
+      p.crossed = Arrays.copyOf(crossed, crossed.length);
+    } else if (!packed && !isPacked()) {
+      p.board = Arrays.copyOf(board, board.length);
+    } else if (packed) {
+      p.setBoard(board);
+    } else {
+      // Unpacking already makes a new array
+      p.board = getBoard();
+    }
+    p.zobrist = zobrist;
     return p;
   }
 
@@ -169,10 +365,10 @@ public class Puzzle {
   public int hashCode() {
     final int prime = 31;
     int result = 1;
-    result = prime * result + Arrays.hashCode(board);
-    result = prime * result + ((colNums == null) ? 0 : colNums.hashCode());
+    // The Zobrist hash stands in for hashing every square, and equal boards have equal hashes
+    result = prime * result + (int) (zobrist ^ (zobrist >>> 32));
+    result = prime * result + clues.hashCode();
     result = prime * result + cols;
-    result = prime * result + ((rowNums == null) ? 0 : rowNums.hashCode());
     result = prime * result + rows;
     return result;
   }
@@ -189,22 +385,35 @@ public class Puzzle {
     if (getClass() != obj.getClass())
       return false;
     Puzzle other = (Puzzle) obj;
-    if (!Arrays.equals(board, other.board))
+    if (!boardEquals(other))
       return false;
-    if (colNums == null) {
-      if (other.colNums != null)
-        return false;
-    } else if (!colNums.equals(other.colNums))
+    if (!clues.equals(other.clues))
       return false;
     if (cols != other.cols)
       return false;
-    if (rowNums == null) {
-      if (other.rowNums != null)
-        return false;
-    } else if (!rowNums.equals(other.rowNums))
-      return false;
     if (rows != other.rows)
       return false;
     return true;
   }
+
+  /**
+   * Compares boards square by square, whether or not either is packed
+   * 
+   * @param other given puzzle
+   * @return true if both boards hold the same squares
+   */
+  private boolean boardEquals(Puzzle other) {
+    if (board != null && other.board != null)
+      return Arrays.equals(board, other.board);
+    if (board == null && other.board == null)
+      return Arrays.equals(filled, other.filled) && Arrays.equals(crossed, other.crossed);
+    int length = rows * cols;
+    if (length != other.rows * other.cols)
+      return false;
+    for (int pos = 0; pos < length; pos++) {
+      if (getSquare(pos) != other.getSquare(pos))
+        return false;
+    }
+    return true;
+  }
 }
@@ -88,15 +88,53 @@ public class PuzzleTest {
     fail("Didn't catch exception");
   }
 
+  /**
+   * Test that {@link puzzle.Puzzle#rowNums} and {@link puzzle.Puzzle#colNums} are read only views
+   * of the clues.
+   */
+  @Test
+  public void testNumsReadOnly() {
+    ArrayList<ArrayList<Integer>> row = new ArrayList<ArrayList<Integer>>();
+    ArrayList<ArrayList<Integer>> col = new ArrayList<ArrayList<Integer>>();
+    ArrayList<Integer> one = new ArrayList<Integer>();
+    one.add(1);
+    row.add(one);
+    col.add(one);
+    Puzzle p = new Puzzle(col, row);
+
+    // Changing the given lists afterwards doesn't reach the puzzle
+    one.add(2);
+    assertTrue(p.rowNums.get(0).size() == 1);
+    assertTrue(p.clues.count(0) == 1);
+
+    try {
+      p.rowNums.get(0).add(1);
+      fail("Changed a row's numbers");
+    } catch (UnsupportedOperationException e) { }
+    try {
+      p.colNums.clear();
+      fail("Changed the column numbers");
+    } catch (UnsupportedOperationException e) { }
+
+    // Copies share the same views
+    assertTrue(p.createCopy().rowNums == p.rowNums);
+  }
+
   /**
    * Test method for {@link puzzle.Puzzle#getBoard()}.
    */
   @Test
   public void testGetBoard() {
     empty.setBoard(emptySol);
-    assertTrue(empty.getBoard().equals(emptySol));
+    assertTrue(Arrays.equals(empty.getBoard(), emptySol));
     small.setBoard(smallSol);
-    assertTrue(small.getBoard().equals(smallSol));
+    assertTrue(Arrays.equals(small.getBoard(), smallSol));
+
+    // The board returned is a copy, so writing to it doesn't change the puzzle
+    int[] board = small.getBoard();
+    assertFalse(board == small.getBoard());
+    board[0] = 0;
+    assertTrue(small.getSquare(0) == 1);
   }
 
   /**
@@ -106,13 +144,20 @@ public class PuzzleTest {
   public void testSetBoardIntArray() {
     //Test with 1x1 boards
     empty.setBoard(emptySol);
-    assertTrue(empty.getBoard().equals(emptySol));
+    assertTrue(Arrays.equals(empty.getBoard(), emptySol));
     singleSquare.setBoard(singleSquareSol);
-    assertTrue(singleSquare.getBoard().equals(singleSquareSol));
+    assertTrue(Arrays.equals(singleSquare.getBoard(), singleSquareSol));
     
     //Test with 5x5 board
     small.setBoard(smallSol);
-    assertTrue(small.getBoard().equals(smallSol));
+    assertTrue(Arrays.equals(small.getBoard(), smallSol));
+
+    // The given board is copied, so writing to it afterwards doesn't change the puzzle
+    int[] board = smallSol.clone();
+    small.setBoard(board);
+    board[0] = 0;
+    assertTrue(small.getSquare(0) == 1);
+    assertTrue(small.equals(small.createCopy(true)));
   }
 
   /**
@@ -174,6 +219,7 @@ public class PuzzleTest {
     assertFalse(other.getBoard() == small.getBoard());
     assertTrue(other.colNums.equals(small.colNums));
     assertTrue(other.rowNums.equals(small.rowNums));
+    assertTrue(other.clues == small.clues);
     assertTrue(other.rows == small.rows);
     assertTrue(other.cols == small.cols);
     assertTrue(Arrays.equals(other.getBoard(), small.getBoard()));
@@ -192,4 +238,97 @@ public class PuzzleTest {
     assertTrue(small.equals(Puzzle.boardToPuzzle(smallSol, 5, 5)));
     assertFalse(small.equals(Puzzle.boardToPuzzle(smallWrong, 5, 5)));
   }
+
+  /**
+   * Test method for {@link puzzle.Puzzle#zobristHash()}.
+   */
+  @Test
+  public void testZobristHash() {
+    assertTrue(small.zobristHash() == 0);
+    small.setBoard(smallSol);
+    long solved = small.zobristHash();
+    assertTrue(solved != 0);
+
+    // Setting squares in any order, packed or not, gives the same hash as setting the whole board
+    Puzzle packed = small.createCopy(true);
+    packed.setBoard(new int[25]);
+    assertTrue(packed.zobristHash() == 0);
+    for (int pos = 24; pos >= 0; pos--) {
+      packed.setBoard(smallSol[pos], pos);
+    }
+    assertTrue(packed.zobristHash() == solved);
+    assertTrue(small.createCopy(true).zobristHash() == solved);
+
+    // Changing a square and changing it back restores the hash
+    small.setBoard(1, 2);
+    assertTrue(small.zobristHash() == solved);
+    small.setBoard(2, 2);
+    assertTrue(small.zobristHash() != solved);
+    small.setBoard(0, 2);
+    small.setBoard(1, 2);
+    assertTrue(small.zobristHash() == solved);
+    assertTrue(small.hashCode() == packed.hashCode());
+
+    // Writing to the board array can't leave the hash out of date
+    small.getBoard()[2] = 2;
+    assertTrue(small.zobristHash() == solved);
+    assertTrue(small.equals(packed));
+    assertTrue(small.hashCode() == packed.hashCode());
+  }
+
+  /**
+   * Test method for {@link puzzle.Puzzle#Puzzle(java.util.ArrayList, java.util.ArrayList, boolean)}.
+   */
+  @Test
+  public void testPackedBoard() {
+    Puzzle packed = small.createCopy(true);
+    assertTrue(packed.isPacked());
+    assertFalse(small.isPacked());
+    assertTrue(Arrays.equals(packed.getBoard(), new int[25]));
+    assertTrue(packed.equals(small));
+    assertTrue(packed.hashCode() == small.hashCode());
+
+    // Single squares and whole boards are packed and unpacked the same
+    packed.setBoard(smallSol);
+    assertTrue(Arrays.equals(smallSol, packed.getBoard()));
+    assertTrue(packed.getFirstBlankPos() == -1);
+    packed.setBoard(0, 12);
+    assertTrue(packed.getSquare(12) == 0);
+    assertTrue(packed.getFirstBlankPos() == 12);
+    packed.setBoard(1, 12);
+    assertTrue(packed.getSquare(12) == 1);
+    packed.setBoard(2, 12);
+    assertTrue(packed.getSquare(12) == 2);
+
+    // Copies keep their own bitsets
+    Puzzle other = packed.createCopy();
+    assertTrue(other.isPacked());
+    other.setBoard(0, 3);
+    assertTrue(packed.getSquare(3) == 2);
+    assertTrue(other.getFirstBlankPos() == 3);
+    assertFalse(other.equals(packed));
+
+    // Converting back gives an equal unpacked puzzle
+    small.setBoard(smallSol);
+    Puzzle unpacked = packed.createCopy(false);
+    assertFalse(unpacked.isPacked());
+    assertTrue(unpacked.equals(small));
+    assertTrue(small.equals(packed));
+  }
+
+  /**
+   * Test method for {@link puzzle.Puzzle#Puzzle(puzzle.Clues, boolean)}.
+   */
+  @Test
+  public void testPuzzleClues() {
+    Puzzle other = new Puzzle(small.clues, false);
+    assertTrue(other.clues == small.clues);
+    assertTrue(other.colNums.equals(small.colNums));
+    assertTrue(other.rowNums.equals(small.rowNums));
+    assertTrue(other.equals(small));
+
+    other = new Puzzle(small.clues, true);
+    assertTrue(other.isPacked());
+    assertTrue(other.equals(small));
+  }
 }
@@ -0,0 +1,39 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for search guessing a value for a square
+ * 
+ * @author coatrain
+ * 
+ */
+@Name("picross.Branch")
+@Label("Branch")
+@Category({"Picross", "Solver"})
+@Description("Search guessing a value for a square, timed with checking or propagating the guess")
+class BranchEvent extends Event {
+
+  static final EventType type = EventType.getEventType(BranchEvent.class);
+
+  @Label("Position")
+  int position;
+
+  @Label("Value")
+  int value;
+
+  @Label("Depth")
+  int depth;
+
+  @Label("Second Value")
+  @Description("Whether this is the other value, tried after the first failed")
+  boolean second;
+
+  @Label("Fits")
+  boolean fits;
+}
@@ -0,0 +1,30 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Chooses which unsure square search guesses next, and which value it guesses first. Strategies
+ * may keep working arrays, so an instance should only be used by one search at a time.
+ * 
+ * @author coatrain
+ * 
+ */
+public interface BranchingStrategy {
+
+  /**
+   * Chooses the next square to guess
+   * 
+   * @param p given puzzle
+   * @return position of an unsure square, or a negative if there are none
+   */
+  public int choosePosition(Puzzle p);
+
+  /**
+   * Chooses the value to guess first for a square. The other value is guessed if it fails.
+   * 
+   * @param p given puzzle
+   * @param pos position of an unsure square
+   * @return 1 to guess filled in first, 2 to guess blank first
+   */
+  public int chooseValue(Puzzle p, int pos);
+}
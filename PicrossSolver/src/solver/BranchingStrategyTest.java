@@ -0,0 +1,114 @@
+package solver;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * Tests for {@link solver.BranchingStrategy} implementations
+ * 
+ * @author coatrain
+ *
+ */
+public class BranchingStrategyTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+
+  /**
+   * Test method for {@link solver.FirstBlankStrategy}.
+   */
+  @Test
+  public void testFirstBlankStrategy() {
+    BranchingStrategy strategy = new FirstBlankStrategy();
+    assertTrue(strategy.choosePosition(small) == 0);
+    assertTrue(strategy.chooseValue(small, 0) == 1);
+    small.setBoard(smallSol);
+    assertTrue(strategy.choosePosition(small) < 0);
+  }
+
+  /**
+   * Test method for {@link solver.LeastSlackStrategy}.
+   */
+  @Test
+  public void testLeastSlackStrategy() {
+    BranchingStrategy strategy = new LeastSlackStrategy(small);
+    // Row 1 and column 0 need all 5 squares, rows are checked first
+    assertTrue(strategy.choosePosition(small) == 5);
+    small.setBoard(new int[] {
+        1,0,0,0,0,
+        1,0,0,0,0,
+        2,0,0,0,0,
+        1,0,0,0,0,
+        1,0,0,0,0});
+    // Row 1 still has unsure squares
+    assertTrue(strategy.choosePosition(small) == 6);
+    small.setBoard(smallSol);
+    assertTrue(strategy.choosePosition(small) < 0);
+  }
+
+  /**
+   * Test method for {@link solver.FailFirstStrategy}.
+   */
+  @Test
+  public void testFailFirstStrategy() {
+    BranchingStrategy strategy = new FailFirstStrategy();
+    assertTrue(strategy.choosePosition(small) == 0);
+    small.setBoard(new int[] {
+        1,1,1,2,2,
+        1,2,1,1,0,
+        2,2,2,1,1,
+        1,0,2,2,1,
+        1,1,2,2,0});
+    // Square 16 is the only unsure square on both its lines
+    assertTrue(strategy.choosePosition(small) == 16);
+    small.setBoard(smallSol);
+    assertTrue(strategy.choosePosition(small) < 0);
+  }
+
+  /**
+   * Test method for {@link solver.PlacementCountStrategy}.
+   */
+  @Test
+  public void testPlacementCountStrategy() {
+    BranchingStrategy strategy = new PlacementCountStrategy(small, new FirstBlankStrategy());
+    assertTrue(strategy.choosePosition(small) == 0);
+    // Column 0 must have square 10 blank
+    assertTrue(strategy.chooseValue(small, 10) == 2);
+    // Column 0 must have square 0 filled in
+    assertTrue(strategy.chooseValue(small, 0) == 1);
+  }
+
+  /**
+   * Test method for {@link solver.BruteForceSolver#findSolutions(puzzle.Puzzle,
+   * solver.BranchingStrategy)} with every strategy.
+   */
+  @Test
+  public void testSearchWithStrategies() {
+    BranchingStrategy[] strategies = {
+        new FirstBlankStrategy(),
+        new LeastSlackStrategy(multiLarge),
+        new FailFirstStrategy(),
+        new PlacementCountStrategy(multiLarge, new FailFirstStrategy())};
+    ArrayList<Puzzle> expected = BruteForceSolver.findSolutions(multiLarge);
+    for (BranchingStrategy strategy : strategies) {
+      ArrayList<Puzzle> sols = BruteForceSolver.findSolutions(multiLarge, strategy);
+      assertTrue(sols.size() == expected.size());
+      assertTrue(sols.containsAll(expected));
+    }
+    Puzzle solved = BruteForceSolver.findSolution(small.createCopy(),
+        new PlacementCountStrategy(small, new LeastSlackStrategy(small)));
+    assertTrue(Arrays.equals(solved.getBoard(), smallSol));
+  }
+}
@@ -1,7 +1,9 @@
 package solver;
 
 import java.util.ArrayList;
-import java.util.Stack;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
 
 import puzzle.Puzzle;
 
@@ -18,61 +20,176 @@ public class BruteForceSolver {
    * @return the solved puzzle if one is found
    */
   public static Puzzle findSolution(Puzzle p) {
-    if(p == null || !PuzzleVerifier.matchesFull(p))
+    return findSolution(p, new FirstBlankStrategy());
+  }
+
+  /**
+   * Solves a given puzzle by brute force, guessing squares in the order given by a strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p, BranchingStrategy strategy) {
+    return findSolution(p, strategy, null);
+  }
+
+  /**
+   * Solves a given puzzle by brute force, guessing squares in the order given by a strategy and
+   * counting the work done
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param stats stats to fill in, or null to not count
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p, BranchingStrategy strategy, SolveStats stats) {
+    if(p == null)
       return null;
-    int pos = p.getFirstBlankPos();
-    if(pos < 0)
-      return p; //puzzle is solved
-    //Copy the puzzle so we can modify it
-    Puzzle p1 = p.createCopy();
-    //Guess that next empty square is filled in
-    p.setBoard(1, pos);
-    //Recurse and see if we can find a solution from here
-    p = findSolution(p);
-    if(p != null)
-      return p;
-    //If we didn't find a solution, try setting next empty square as blank
-    p1.setBoard(2, pos);
-    return findSolution(p1);
+    //Search in place, the board is left holding the solution
+    return new SearchEngine(p, strategy, null, stats).nextSolution() ? p : null;
   }
   
+  /**
+   * Solves a given puzzle by brute force, stopping at the limits in the given options
+   * @param p given puzzle
+   * @param options deadline, node budget, max depth and cancellation token for the search, or
+   *        null to search without limits
+   * @return SOLVED with the solved puzzle, NO_SOLUTION, or why the search stopped along with the
+   *         board that had the most squares known
+   */
+  public static SolveResult solve(Puzzle p, SolveOptions options) {
+    return solve(p, new FirstBlankStrategy(), options);
+  }
+
+  /**
+   * Solves a given puzzle by brute force, guessing squares in the order given by a strategy and
+   * stopping at the limits in the given options
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param options deadline, node budget, max depth and cancellation token for the search, or
+   *        null to search without limits
+   * @return SOLVED with the solved puzzle, NO_SOLUTION, or why the search stopped along with the
+   *         board that had the most squares known
+   */
+  public static SolveResult solve(Puzzle p, BranchingStrategy strategy,
+      SolveOptions options) {
+    SolveStats stats = new SolveStats();
+    if(p == null)
+      return new SolveResult(SolveResult.Status.NO_SOLUTION, null, stats);
+    //Search in place, the board is left holding the solution
+    SearchEngine search = new SearchEngine(p, strategy, null, stats, options);
+    return SolveResult.of(p, search, search.nextSolution(), stats);
+  }
+
   /**
    * Finds all solutions to a given puzzle by brute force and returns them
    * @param p given puzzle
    * @return all possible solutions to the given puzzle, empty list if none found
    */
   public static ArrayList<Puzzle> findSolutions(Puzzle p) {
-    //TODO
+    return findSolutions(p, new FirstBlankStrategy());
+  }
+
+  /**
+   * Finds all solutions to a given puzzle by brute force, guessing squares in the order given by a
+   * strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @return all possible solutions to the given puzzle, empty list if none found
+   */
+  public static ArrayList<Puzzle> findSolutions(Puzzle p, BranchingStrategy strategy) {
     ArrayList<Puzzle> ret = new ArrayList<Puzzle>();
-    //Use a stack to hold all puzzles that may be solvable
-    Stack<Puzzle> st = new Stack<Puzzle>();
-    //Return if empty list if p is null or we know it can't be solved
-    if(!PuzzleVerifier.matchesFull(p))
+    //Return if empty list if p is null
+    if(p == null)
       return ret;
-    //Otherwise, add it to the stack
-    st.push(p);
-    while(!st.empty()) {
-      //Insert opposite values into candidate puzzle
-      Puzzle top = st.pop();
-      Puzzle other = top.createCopy();
-      int firstEmpty = top.getFirstBlankPos();
-      top.setBoard(2, firstEmpty);
-      other.setBoard(1, firstEmpty);
-      //Only continue with top if it can be or is already solved
-      if(PuzzleVerifier.matchesFull(top))
-        //If it's not solved, add it to the stack
-        if(top.getFirstBlankPos() != -1)
-          st.push(top);
-        else
-          //Add to solutions if there's no blank spot left
-          ret.add(top);
-      //Repeat with opposite value puzzle
-      if(PuzzleVerifier.matchesFull(other))
-        if(top.getFirstBlankPos() != -1)
-          st.push(other);
-        else
-          ret.add(other);
-    }
+    //Search in place, only copying the board when a solution is found
+    SearchEngine search = new SearchEngine(p, strategy);
+    while(search.nextSolution())
+      ret.add(p.createCopy());
     return ret;
   }
+
+  /**
+   * Lazily iterates over the solutions to a given puzzle by brute force, stopping after limit
+   * solutions
+   * @param p given puzzle, its board is not changed
+   * @param limit most solutions to return
+   * @return iterator searching for each solution as it is asked for
+   */
+  public static SolutionIterator solutions(Puzzle p, long limit) {
+    return new SolutionIterator(p, new FirstBlankStrategy(), limit);
+  }
+
+  /**
+   * Streams the solutions to a given puzzle by brute force, searching for each solution as the
+   * stream is consumed
+   * @param p given puzzle, its board is not changed
+   * @return stream of solutions
+   */
+  public static Stream<Puzzle> solutionStream(Puzzle p) {
+    return new SolutionIterator(p).stream();
+  }
+
+  /**
+   * Finds all solutions to a given puzzle by brute force, splitting the search across a fork join
+   * pool. The first splitDepth guesses each fork a task per value, and the subtrees below are
+   * searched sequentially. Solutions are returned in the same order as findSolutions(p) would.
+   * @param p given puzzle, its board is not changed
+   * @param parallelism number of threads to search with
+   * @param splitDepth number of guesses to split into separate tasks before searching sequentially
+   * @return all possible solutions to the given puzzle, empty list if none found
+   */
+  public static ArrayList<Puzzle> findSolutions(Puzzle p, int parallelism, int splitDepth) {
+    if(p == null || !PuzzleVerifier.isFeasible(p))
+      return new ArrayList<Puzzle>();
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      return pool.invoke(new SolutionsTask(p.createCopy(), splitDepth));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Task finding all solutions below a board whose lines are known to fit
+   */
+  private static class SolutionsTask extends RecursiveTask<ArrayList<Puzzle>> {
+    private static final long serialVersionUID = 1L;
+
+    private final Puzzle p;
+    private final int splitDepth;
+
+    /**
+     * @param p board to search from, owned by this task
+     * @param splitDepth remaining guesses to split before searching sequentially
+     */
+    SolutionsTask(Puzzle p, int splitDepth) {
+      this.p = p;
+      this.splitDepth = splitDepth;
+    }
+
+    @Override
+    protected ArrayList<Puzzle> compute() {
+      int pos = p.getFirstBlankPos();
+      if(splitDepth <= 0 || pos < 0)
+        return findSolutions(p);
+      //Split into a task guessing filled in and one guessing blank
+      IncrementalVerifier verifier = new IncrementalVerifier(p);
+      Puzzle filled = p.createCopy();
+      filled.setBoard(1, pos);
+      p.setBoard(2, pos);
+      SolutionsTask first = null;
+      if(verifier.fitsAt(filled, pos)) {
+        first = new SolutionsTask(filled, splitDepth - 1);
+        first.fork();
+      }
+      ArrayList<Puzzle> second = verifier.fitsAt(p, pos)
+          ? new SolutionsTask(p, splitDepth - 1).compute() : new ArrayList<Puzzle>();
+      if(first == null)
+        return second;
+      //Keep filled in solutions first, same as the sequential search
+      ArrayList<Puzzle> ret = first.join();
+      ret.addAll(second);
+      return ret;
+    }
+  }
 }
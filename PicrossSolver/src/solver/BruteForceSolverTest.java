@@ -79,4 +79,25 @@ public class BruteForceSolverTest {
     assertTrue(sols.size() == 8);
   }
 
+  /**
+   * Test method for {@link solver.BruteForceSolver#findSolutions(puzzle.Puzzle, int, int)}.
+   */
+  @Test
+  public void testFindSolutionsParallel() {
+    //Same solutions in the same order as the sequential search, for any split depth
+    for(int splitDepth = 0; splitDepth < 6; splitDepth++) {
+      for(Puzzle p : new Puzzle[] {small, multi2x2, multiLarge}) {
+        ArrayList<Puzzle> parallel = BruteForceSolver.findSolutions(p, 4, splitDepth);
+        assertTrue(parallel.equals(BruteForceSolver.findSolutions(p)));
+      }
+    }
+    //Board of the given puzzle isn't changed
+    multi2x2.setBoard(1, 0);
+    ArrayList<Puzzle> sols = BruteForceSolver.findSolutions(multi2x2, 2, 2);
+    assertTrue(sols.size() == 1);
+    assertTrue(Arrays.equals(sols.get(0).getBoard(), multiSol1));
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,0,0,0}));
+    assertTrue(BruteForceSolver.findSolutions(null, 2, 2).isEmpty());
+  }
+
 }
@@ -0,0 +1,48 @@
+package solver;
+
+/**
+ * Flag for stopping a running solve from another thread. Searches check the flag between guesses,
+ * so a cancelled solve returns soon after cancel is called, leaving its board restored. One token
+ * may be shared by several solves to cancel them all at once.
+ * 
+ * @author coatrain
+ * 
+ */
+public class CancellationToken {
+
+  private final CancellationToken parent;
+  private volatile boolean cancelled = false;
+
+  /**
+   * Creates a token that is only cancelled by calling cancel
+   */
+  public CancellationToken() {
+    this(null);
+  }
+
+  /**
+   * Creates a token that is also cancelled when the given token is, so a group of solves can be
+   * stopped on their own or along with whatever started them
+   * 
+   * @param parent token whose cancellation also cancels this one, or null for none
+   */
+  public CancellationToken(CancellationToken parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Asks every solve checking this token to stop
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Determines if cancel has been called on this token or its parent
+   * 
+   * @return true if solves checking this token should stop
+   */
+  public boolean isCancelled() {
+    return cancelled || parent != null && parent.isCancelled();
+  }
+}
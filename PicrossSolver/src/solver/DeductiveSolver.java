@@ -1,9 +1,5 @@
 package solver;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
 import puzzle.Puzzle;
 
 /**
@@ -14,136 +10,165 @@ import puzzle.Puzzle;
  */
 public class DeductiveSolver {
 
+  // Most lines findSolution caches when not given a cache
+  public static final int defaultCacheSize = 1 << 16;
+
   /**
    * Solves using other deductive methods. Assumes any guessed squares (filled in or blank) are
    * correct.
    * 
    * @param p given puzzle
    * @return a solved puzzle, or one that is solved as fully as possible
+   * @throws IllegalStateException if the guessed squares leave a row or column unsolvable
+   */
+  public static Puzzle findSolution(Puzzle p) throws IllegalStateException {
+    return findSolution(p, new LineCache(defaultCacheSize));
+  }
+
+  /**
+   * Solves using other deductive methods, checking a cache of solved lines before solving each line.
+   * Assumes any guessed squares (filled in or blank) are correct.
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared between solves
+   * @return a solved puzzle, or one that is solved as fully as possible
+   * @throws IllegalStateException if the guessed squares leave a row or column unsolvable
+   */
+  public static Puzzle findSolution(Puzzle p, LineCache cache) throws IllegalStateException {
+    return findSolution(p, cache, 0);
+  }
+
+  /**
+   * Solves using other deductive methods, then probes each unsure square once no more lines can be
+   * solved. Assumes any guessed squares (filled in or blank) are correct.
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared between solves
+   * @param probeThreads number of threads to probe with, or 0 to not probe
+   * @return a solved puzzle, or one that is solved as fully as possible
+   * @throws IllegalStateException if the guessed squares leave a row or column unsolvable
    */
-  public static Puzzle findSolution(Puzzle p) {
-    // Solve by iteratively guessing. Keep looping iff we haven't reached a fixed point.
-    boolean hasChanged = true;
-    // TODO implement better method to detect change
-    while (hasChanged) {
-      int[] startingBoard = Arrays.copyOf(p.getBoard(), p.getBoard().length);
-      p = deduceFilledRows(p);
-      p = deduceFilledColumns(p);
-      if (Arrays.equals(startingBoard, p.getBoard()))
-        hasChanged = false;
+  public static Puzzle findSolution(Puzzle p, LineCache cache, int probeThreads)
+      throws IllegalStateException {
+    return findSolution(p, cache, probeThreads, null);
+  }
+
+  /**
+   * Solves using other deductive methods, then probes each unsure square once no more lines can be
+   * solved, counting the work done. Assumes any guessed squares (filled in or blank) are correct.
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared between solves
+   * @param probeThreads number of threads to probe with, or 0 to not probe
+   * @param stats stats to fill in, including the work done probing, or null to not count
+   * @return a solved puzzle, or one that is solved as fully as possible
+   * @throws IllegalStateException if the guessed squares leave a row or column unsolvable
+   */
+  public static Puzzle findSolution(Puzzle p, LineCache cache, int probeThreads, SolveStats stats)
+      throws IllegalStateException {
+    return findSolution(p, cache, probeThreads, stats, null);
+  }
+
+  /**
+   * Solves using other deductive methods, then probes each unsure square once no more lines can be
+   * solved, counting the work done and stopping once the deadline in the given options passes or
+   * its token is cancelled. Assumes any guessed squares (filled in or blank) are correct.
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared between solves
+   * @param probeThreads number of threads to probe with, or 0 to not probe
+   * @param stats stats to fill in, including the work done probing, or null to not count
+   * @param options options whose deadline and token to check, or null to never stop early
+   * @return a solved puzzle, or one that is solved as fully as possible before stopping
+   * @throws IllegalStateException if the guessed squares leave a row or column unsolvable
+   */
+  public static Puzzle findSolution(Puzzle p, LineCache cache, int probeThreads, SolveStats stats,
+      SolveOptions options) throws IllegalStateException {
+    // Solve every line once, then only lines that changed until we reach a fixed point
+    Propagator propagator = new Propagator(p, cache, stats, options);
+    if (!propagator.propagate(p)) {
+      if (propagator.stopStatus() != null)
+        return p;
+      throw new IllegalStateException("Puzzle cannot be solved!");
+    }
+    if (probeThreads > 0) {
+      long start = System.nanoTime();
+      boolean solvable = Prober.probe(p, cache, probeThreads, stats, options);
+      if (stats != null)
+        stats.probeNanos += System.nanoTime() - start;
+      if (!solvable)
+        throw new IllegalStateException("Puzzle cannot be solved!");
     }
     return p;
   }
 
   /**
-   * Checks columns for squares that must be filled in, and fills them in
+   * Checks columns for squares that must be filled in or crossed out, and fills them in
    * 
    * @param p given puzzle to check
    * @return a puzzle with deduced squares filled in. null if puzzle is null.
+   * @throws IllegalStateException if a column cannot be solved
    */
-  public static Puzzle deduceFilledColumns(Puzzle p) {
-    // TODO Auto-generated method stub
-    return null;
+  public static Puzzle deduceFilledColumns(Puzzle p) throws IllegalStateException {
+    // Return null if puzzle is null
+    if (p == null)
+      return p;
+    LineSolver solver = new LineSolver();
+    int[] nums = p.clues.copyNums();
+    int[] line = new int[p.rows];
+    for (int col = 0; col < p.cols; col++) {
+      deduceLine(p, solver, nums, p.rows + col, line);
+    }
+    return p;
   }
 
   /**
-   * Checks rows for squares that must be filled in, and fills them in
+   * Checks rows for squares that must be filled in or crossed out, and fills them in
    * 
    * @param p given puzzle to check
    * @return a puzzle with deduced squares filled in. null if puzzle is null.
+   * @throws IllegalStateException if a row cannot be solved
    */
-  public static Puzzle deduceFilledRows(Puzzle p) {
+  public static Puzzle deduceFilledRows(Puzzle p) throws IllegalStateException {
     // Return null if puzzle is null
     if (p == null)
       return p;
-
-    // Go through rows of puzzle
+    LineSolver solver = new LineSolver();
+    int[] nums = p.clues.copyNums();
+    int[] line = new int[p.cols];
     for (int row = 0; row < p.rows; row++) {
-      ArrayList<Integer> currentRowNums = p.rowNums.get(row);
-      // Skip rows that must be empty
-      if (currentRowNums.size() == 0)
-        continue;
-
-      // Fill in row if it must be full
-      if (currentRowNums.get(0) == p.cols) {
-        for (int pos = row * p.cols; pos < (row + 1) * p.cols; pos++) {
-          p.setBoard(1, pos);
-        }
-      } else {
-        for (int i = 0; i < currentRowNums.size(); i++) {
-          // Get rowNums to left and right of ith
-          List<Integer> left = currentRowNums.subList(0, i);
-          List<Integer> right = currentRowNums.subList(i + 1, currentRowNums.size());
-          int current = currentRowNums.get(i);
-
-          // Get current row from board
-          int[] currentRow = Arrays.copyOf(p.getBoard(), p.cols);
-
-          // Find pos of ith rowNum where all lines are as left as possible
-          int pos = 0;
-          for (int rowNum : left) {
-            // Search for the leftmost spot for each rowNum, incrementing pos until one is found
-            int foundPos = findLeftmostFillable(currentRow, rowNum, pos);
-
-            // Throw exception if puzzle cannot be solved (since all lines won't fit
-            if (foundPos == -1)
-              throw new IllegalStateException("Puzzle cannot be solved!");
-
-            // If it fits, increment pos by rowNum+1 for line + a blank space
-            // Move on to the next rowNum
-            pos = foundPos + rowNum + 1;
-          }
-
-          // Add ith on left and blank all other squares
-          int[] leftAligned = new int[p.cols];
-          Arrays.fill(currentRow, pos, pos + current, 1);
-
-          // Find pos of ith rowNum where all lines are as right as possible
-          pos = p.cols - 1;
-          for (int j = right.size() - 1; j >= 0; j--) {
-            int rowNum = right.get(j);
-            int foundPos = findRightmostFillable(currentRow, rowNum, pos);
-            if (foundPos == -1)
-              throw new IllegalStateException("Puzzle cannot be solved!");
-            // If it fits, decrement pos by rowNum+1 for line + a blank space
-            pos = foundPos - rowNum - 1;
-          }
-
-          // Add ith on right and blank all other squares
-          int[] rightAligned = new int[p.cols];
-          Arrays.fill(currentRow, pos - current + 1, pos, 1);
-
-          // Find overlap between left and right
-          int first = -1;
-          int length = 0;
-          for (int k = 0; k < currentRow.length; k++) {
-            if (leftAligned[k] == 1 && rightAligned[k] == 1) {
-              // Set first as the first of overlap if it's not set
-              if (first < 0)
-                first = k;
-              // Increment the length
-              length++;
-            } else if (first >= 0) {
-              // Break loop if we've gone past the overlap
-              break;
-            }
-          }
-
-          // Add overlap to board
-          if (first >= 0) {
-            int[] board = p.getBoard();
-            Arrays.fill(board, first, first + length, 1);
-          }
-        }
-      }
-
-
-
+      deduceLine(p, solver, nums, row, line);
     }
-
     return p;
   }
 
+  /**
+   * Solves one line of the board and writes any deduced squares back to it
+   * 
+   * @param p given puzzle
+   * @param solver line solver to use
+   * @param nums copy of the puzzle's numbers
+   * @param l line index, rows first
+   * @param line scratch array as long as the line
+   * @throws IllegalStateException if the line cannot be solved
+   */
+  private static void deduceLine(Puzzle p, LineSolver solver, int[] nums, int l, int[] line)
+      throws IllegalStateException {
+    // Squares in a column are cols apart on the board
+    int first = p.clues.firstSquare(l);
+    int step = p.clues.step(l);
+    for (int i = 0; i < line.length; i++) {
+      line[i] = p.getSquare(first + i * step);
+    }
+    if (!solver.solve(nums, p.clues.offset(l), p.clues.count(l), line, line.length))
+      throw new IllegalStateException("Puzzle cannot be solved!");
+    for (int i = 0; i < line.length; i++) {
+      int pos = first + i * step;
+      if (line[i] != p.getSquare(pos))
+        p.setBoard(line[i], pos);
+    }
+  }
+
   /**
    * Finds the rightmost spot that is >= to given position for the row number line
    * 
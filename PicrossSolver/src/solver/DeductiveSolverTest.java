@@ -1,7 +1,6 @@
 package solver;
 
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.fail;
 
 import java.util.Arrays;
 
@@ -75,7 +74,39 @@ public class DeductiveSolverTest {
    */
   @Test
   public void testDeduceFilledColumns() {
-    fail("Not yet implemented.");
+    // Trivial case
+    singleSquare = DeductiveSolver.deduceFilledColumns(singleSquare);
+    assertTrue(Arrays.equals(singleSquare.getBoard(), singleSquareSol));
+
+    // First column must be full except the center, last column must have center filled
+    small = DeductiveSolver.deduceFilledColumns(small);
+    int[] expected = {
+        1,0,0,0,0,
+        1,0,0,0,0,
+        2,0,0,0,1,
+        1,0,0,0,0,
+        1,0,0,0,0};
+    assertTrue(Arrays.equals(small.getBoard(), expected));
+
+    // Nothing to deduce
+    partial = DeductiveSolver.deduceFilledColumns(partial);
+    assertTrue(Arrays.equals(partial.getBoard(), new int[8]));
+
+    // Guessed squares are used
+    int input[] = {
+        1,0,
+        0,0,
+        0,0,
+        2,0};
+    int sol[] = {
+        1,0,
+        2,0,
+        1,0,
+        2,0};
+    partial.setBoard(input);
+    partial = DeductiveSolver.deduceFilledColumns(partial);
+    assertTrue(Arrays.equals(partial.getBoard(), sol));
+    assertTrue(DeductiveSolver.deduceFilledColumns(null) == null);
   }
 
   /**
@@ -91,12 +122,12 @@ public class DeductiveSolverTest {
     partial = DeductiveSolver.deduceFilledRows(partial);
     int[] expected = {
         1,1,
-        0,0,
+        2,2,
         0,0,
         0,0};
     assertTrue(Arrays.equals(partial.getBoard(), expected));
 
-    // Test full solve
+    // Test guessed squares are used
     int input[] = {
         0,0,
         0,0,
@@ -104,12 +135,28 @@ public class DeductiveSolverTest {
         0,0};
     int sol[] = {
         1,1,
-        0,0,
-        1,0,
-        0,1};
+        2,2,
+        1,2,
+        0,0};
     partial.setBoard(input);
     partial = DeductiveSolver.deduceFilledRows(partial);
     assertTrue(Arrays.equals(partial.getBoard(), sol));
+    assertTrue(DeductiveSolver.deduceFilledRows(null) == null);
+  }
+
+  /**
+   * Test method for {@link solver.DeductiveSolver#deduceFilledRows(puzzle.Puzzle)} on a row that
+   * can't be solved.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testDeduceFilledRowsUnsolvable() {
+    int input[] = {
+        1,2,
+        0,0,
+        0,0,
+        0,0};
+    partial.setBoard(input);
+    DeductiveSolver.deduceFilledRows(partial);
   }
 
   /**
@@ -0,0 +1,55 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Guesses the unsure square whose row and column have the fewest other unsure squares, filled in
+ * first. Those lines are closest to being full, so wrong guesses fail soonest.
+ * 
+ * @author coatrain
+ * 
+ */
+public class FailFirstStrategy implements BranchingStrategy {
+
+  private int[] rowUnsure = new int[0];
+  private int[] colUnsure = new int[0];
+
+  @Override
+  public int choosePosition(Puzzle p) {
+    if (rowUnsure.length != p.rows || colUnsure.length != p.cols) {
+      rowUnsure = new int[p.rows];
+      colUnsure = new int[p.cols];
+    }
+    for (int row = 0; row < p.rows; row++) {
+      rowUnsure[row] = 0;
+    }
+    for (int col = 0; col < p.cols; col++) {
+      colUnsure[col] = 0;
+    }
+    // Count unsure squares on each line
+    for (int pos = 0; pos < p.rows * p.cols; pos++) {
+      if (p.getSquare(pos) == 0) {
+        rowUnsure[pos / p.cols]++;
+        colUnsure[pos % p.cols]++;
+      }
+    }
+
+    int best = -1;
+    int bestUnsure = Integer.MAX_VALUE;
+    for (int pos = 0; pos < p.rows * p.cols; pos++) {
+      if (p.getSquare(pos) != 0)
+        continue;
+      int unsure = rowUnsure[pos / p.cols] + colUnsure[pos % p.cols];
+      if (unsure < bestUnsure) {
+        best = pos;
+        bestUnsure = unsure;
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public int chooseValue(Puzzle p, int pos) {
+    return 1;
+  }
+}
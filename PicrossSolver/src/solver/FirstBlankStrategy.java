@@ -0,0 +1,22 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Guesses squares in board order, filled in first
+ * 
+ * @author coatrain
+ * 
+ */
+public class FirstBlankStrategy implements BranchingStrategy {
+
+  @Override
+  public int choosePosition(Puzzle p) {
+    return p.getFirstBlankPos();
+  }
+
+  @Override
+  public int chooseValue(Puzzle p, int pos) {
+    return 1;
+  }
+}
@@ -0,0 +1,34 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Branching strategies by name, so solvers can be configured with a strategy and create a fresh one
+ * for each search
+ * 
+ * @author coatrain
+ * 
+ */
+public enum Heuristic {
+  FIRST_BLANK, LEAST_SLACK, FAIL_FIRST, PLACEMENT_COUNT;
+
+  /**
+   * Creates a new instance of this strategy
+   * 
+   * @param p puzzle the strategy will search
+   * @return strategy for the puzzle
+   */
+  public BranchingStrategy create(Puzzle p) {
+    switch (this) {
+      case LEAST_SLACK:
+        return new LeastSlackStrategy(p);
+      case FAIL_FIRST:
+        return new FailFirstStrategy();
+      case PLACEMENT_COUNT:
+        // Guess the most constrained squares, with the value most placements agree with
+        return new PlacementCountStrategy(p, new FailFirstStrategy());
+      default:
+        return new FirstBlankStrategy();
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.stream.Stream;
+
+import puzzle.Puzzle;
+
+/**
+ * Solve the puzzle by searching with deduction. Lines are propagated to a fixed point at every
+ * guess, so the search only guesses once deduction stalls and backtracks as soon as a row or
+ * column can't be solved. Line solutions are cached and shared by every node of the search.
+ * @author coatrain
+ *
+ */
+public class HybridSolver {
+
+  /**
+   * Solves a given puzzle by propagating and guessing
+   * @param p given puzzle
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p) {
+    return findSolution(p, new FirstBlankStrategy());
+  }
+
+  /**
+   * Solves a given puzzle by propagating and guessing squares in the order given by a strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p, BranchingStrategy strategy) {
+    return findSolution(p, strategy, new LineCache(DeductiveSolver.defaultCacheSize));
+  }
+
+  /**
+   * Solves a given puzzle by propagating and guessing squares in the order given by a strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param cache cache of solved lines, may be shared between solves
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p, BranchingStrategy strategy, LineCache cache) {
+    return findSolution(p, strategy, cache, null);
+  }
+
+  /**
+   * Solves a given puzzle by propagating and guessing squares in the order given by a strategy,
+   * counting the work done
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param cache cache of solved lines, may be shared between solves
+   * @param stats stats to fill in, or null to not count
+   * @return the solved puzzle if one is found
+   */
+  public static Puzzle findSolution(Puzzle p, BranchingStrategy strategy, LineCache cache,
+      SolveStats stats) {
+    if(p == null)
+      return null;
+    //Search in place, the board is left holding the solution
+    return search(p, strategy, cache, stats).nextSolution() ? p : null;
+  }
+
+  /**
+   * Solves a given puzzle by propagating and guessing, stopping at the limits in the given options
+   * @param p given puzzle
+   * @param options deadline, node budget, max depth and cancellation token for the search, or
+   *        null to search without limits
+   * @return SOLVED with the solved puzzle, NO_SOLUTION, or why the search stopped along with the
+   *         board that had the most squares known
+   */
+  public static SolveResult solve(Puzzle p, SolveOptions options) {
+    return solve(p, new FirstBlankStrategy(), new LineCache(DeductiveSolver.defaultCacheSize),
+        options);
+  }
+
+  /**
+   * Solves a given puzzle by propagating and guessing squares in the order given by a strategy,
+   * stopping at the limits in the given options
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param cache cache of solved lines, may be shared between solves
+   * @param options deadline, node budget, max depth and cancellation token for the search, or
+   *        null to search without limits
+   * @return SOLVED with the solved puzzle, NO_SOLUTION, or why the search stopped along with the
+   *         board that had the most squares known
+   */
+  public static SolveResult solve(Puzzle p, BranchingStrategy strategy, LineCache cache,
+      SolveOptions options) {
+    SolveStats stats = new SolveStats();
+    if(p == null)
+      return new SolveResult(SolveResult.Status.NO_SOLUTION, null, stats);
+    //Search in place, the board is left holding the solution
+    SearchEngine search = new SearchEngine(p, strategy, new Propagator(p, cache, stats, options),
+        stats, options);
+    return SolveResult.of(p, search, search.nextSolution(), stats);
+  }
+
+  /**
+   * Finds all solutions to a given puzzle by propagating and guessing
+   * @param p given puzzle
+   * @return all possible solutions to the given puzzle, empty list if none found
+   */
+  public static ArrayList<Puzzle> findSolutions(Puzzle p) {
+    return findSolutions(p, new FirstBlankStrategy());
+  }
+
+  /**
+   * Finds all solutions to a given puzzle by propagating and guessing squares in the order given by
+   * a strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @return all possible solutions to the given puzzle, empty list if none found
+   */
+  public static ArrayList<Puzzle> findSolutions(Puzzle p, BranchingStrategy strategy) {
+    return findSolutions(p, strategy, new LineCache(DeductiveSolver.defaultCacheSize));
+  }
+
+  /**
+   * Finds all solutions to a given puzzle by propagating and guessing squares in the order given by
+   * a strategy
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param cache cache of solved lines, may be shared between solves
+   * @return all possible solutions to the given puzzle, empty list if none found
+   */
+  public static ArrayList<Puzzle> findSolutions(Puzzle p, BranchingStrategy strategy,
+      LineCache cache) {
+    ArrayList<Puzzle> ret = new ArrayList<Puzzle>();
+    //Return if empty list if p is null
+    if(p == null)
+      return ret;
+    //Search in place, only copying the board when a solution is found
+    SearchEngine search = search(p, strategy, cache, null);
+    while(search.nextSolution())
+      ret.add(p.createCopy());
+    return ret;
+  }
+
+  /**
+   * Lazily iterates over the solutions to a given puzzle by propagating and guessing, stopping
+   * after limit solutions
+   * @param p given puzzle, its board is not changed
+   * @param limit most solutions to return
+   * @return iterator searching for each solution as it is asked for
+   */
+  public static SolutionIterator solutions(Puzzle p, long limit) {
+    return new SolutionIterator(p, new FirstBlankStrategy(),
+        new LineCache(DeductiveSolver.defaultCacheSize), limit);
+  }
+
+  /**
+   * Streams the solutions to a given puzzle by propagating and guessing, searching for each
+   * solution as the stream is consumed
+   * @param p given puzzle, its board is not changed
+   * @return stream of solutions
+   */
+  public static Stream<Puzzle> solutionStream(Puzzle p) {
+    return solutions(p, Long.MAX_VALUE).stream();
+  }
+
+  /**
+   * Creates a search that propagates after every guess
+   */
+  private static SearchEngine search(Puzzle p, BranchingStrategy strategy, LineCache cache,
+      SolveStats stats) {
+    return new SearchEngine(p, strategy, new Propagator(p, cache, stats), stats);
+  }
+}
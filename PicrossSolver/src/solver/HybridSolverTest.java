@@ -0,0 +1,107 @@
+package solver;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class HybridSolverTest {
+
+  Puzzle empty = FileHandler.getFilePuzzle("testPuzzles/emptyTest.txt");
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+
+  /**
+   * Test method for {@link solver.HybridSolver#findSolution(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testFindSolution() {
+    assertNull(HybridSolver.findSolution(null));
+    assertTrue(Arrays.equals(HybridSolver.findSolution(empty).getBoard(), new int[] {2}));
+    assertTrue(Arrays.equals(HybridSolver.findSolution(small).getBoard(), smallSol));
+
+    // Wrong guesses give no solution
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    assertNull(HybridSolver.findSolution(multi2x2));
+  }
+
+  /**
+   * Test method for {@link solver.HybridSolver#findSolutions(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testFindSolutions() {
+    assertTrue(HybridSolver.findSolutions(null).isEmpty());
+    assertTrue(HybridSolver.findSolutions(small).size() == 1);
+
+    // Same solutions as brute force, and the board is restored
+    ArrayList<Puzzle> solutions = HybridSolver.findSolutions(multiLarge);
+    assertTrue(Arrays.equals(multiLarge.getBoard(), new int[multiLarge.rows * multiLarge.cols]));
+    HashSet<Puzzle> expected =
+        new HashSet<Puzzle>(BruteForceSolver.findSolutions(multiLarge.createCopy()));
+    assertTrue(solutions.size() == 8);
+    assertTrue(new HashSet<Puzzle>(solutions).equals(expected));
+    for (Puzzle solution : solutions) {
+      assertTrue(PuzzleVerifier.matchesFull(solution));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link solver.HybridSolver#findSolutions(puzzle.Puzzle, solver.BranchingStrategy, solver.LineCache)}.
+   */
+  @Test
+  public void testFindSolutionsSharedCache() {
+    LineCache cache = new LineCache(1024);
+    ArrayList<Puzzle> first =
+        HybridSolver.findSolutions(multiLarge.createCopy(), new FirstBlankStrategy(), cache);
+    long misses = cache.misses();
+    assertTrue(misses > 0);
+
+    // A second search reuses every line the first solved
+    ArrayList<Puzzle> second =
+        HybridSolver.findSolutions(multiLarge.createCopy(), new FirstBlankStrategy(), cache);
+    assertTrue(cache.misses() == misses);
+    assertTrue(second.equals(first));
+  }
+
+  /**
+   * Test method for {@link solver.SearchEngine#nextSolution()} with a propagator.
+   */
+  @Test
+  public void testPropagatingSearch() {
+    // Deduction alone solves the small puzzle, so no guesses are left to undo
+    SearchEngine search =
+        new SearchEngine(small, new FirstBlankStrategy(), new Propagator(small, null));
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(small.getBoard(), smallSol));
+    assertFalse(search.nextSolution());
+    assertTrue(Arrays.equals(small.getBoard(), new int[25]));
+
+    // Guessed squares are kept
+    multi2x2.setBoard(new int[] {0,1,0,0});
+    search = new SearchEngine(multi2x2, new FirstBlankStrategy(), new Propagator(multi2x2, null));
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {2,1,1,2}));
+    assertFalse(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {0,1,0,0}));
+  }
+}
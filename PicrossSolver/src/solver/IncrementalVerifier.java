@@ -0,0 +1,100 @@
+package solver;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+
+/**
+ * Verifier for search that only checks the row and column through the last changed square. Reads
+ * the numbers from the puzzle's Clues so checking a line doesn't allocate or unbox. Can be used for
+ * every board with the same numbers as the puzzle it was created for, but reuses its working arrays
+ * so it should only be used by one thread at a time.
+ *
+ * @author rippe_000
+ *
+ */
+public class IncrementalVerifier {
+
+  private final int rows;
+  private final int cols;
+  private final Clues clues;
+  private final int[] nums;
+  private final LineSolver solver = new LineSolver();
+  private final int[] line;
+
+  /**
+   * Creates a verifier for boards with the same numbers as the given puzzle
+   * 
+   * @param p given puzzle
+   */
+  public IncrementalVerifier(Puzzle p) {
+    rows = p.rows;
+    cols = p.cols;
+    clues = p.clues;
+    nums = clues.copyNums();
+    line = new int[Math.max(rows, cols)];
+  }
+
+  /**
+   * Determines if the row and column through a square can still be completed to match their
+   * numbers. Unlike matchesAt, lines that aren't full are checked too. Assumes the rest of the
+   * board was already checked.
+   * 
+   * @param p given puzzle
+   * @param pos position of the last changed square
+   * @return false if no placement of the numbers fits the row or column, true otherwise
+   */
+  public boolean fitsAt(Puzzle p, int pos) {
+    int row = pos / cols;
+    int col = pos % cols;
+    return fitsLine(p, row) && fitsLine(p, rows + col);
+  }
+
+  /**
+   * Determines if every row and column can still be completed to match their numbers
+   * 
+   * @param p given puzzle
+   * @return false if no placement of the numbers fits some line, true otherwise
+   */
+  public boolean fitsAll(Puzzle p) {
+    for (int l = 0; l < rows + cols; l++) {
+      if (!fitsLine(p, l))
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Determines if a line can be completed. Full lines are compared directly, others are checked
+   * with the line solver.
+   * 
+   * @param p given puzzle
+   * @param l line index
+   * @return false if no placement of the numbers fits the line
+   */
+  private boolean fitsLine(Puzzle p, int l) {
+    int length = clues.length(l);
+    int step = clues.step(l);
+    boolean full = true;
+    for (int i = 0, pos = clues.firstSquare(l); i < length; i++, pos += step) {
+      line[i] = p.getSquare(pos);
+      full &= line[i] != 0;
+    }
+    if (full)
+      return PuzzleVerifier.matchesLine(p, l);
+    return solver.fits(nums, clues.offset(l), clues.count(l), line, length);
+  }
+
+  /**
+   * Determines if the row and column through a square still match their numbers, if they are full.
+   * Assumes the rest of the board was already checked.
+   * 
+   * @param p given puzzle
+   * @param pos position of the last changed square
+   * @return false if the row or column is full and doesn't match its numbers, true otherwise
+   */
+  public boolean matchesAt(Puzzle p, int pos) {
+    int row = pos / cols;
+    int col = pos % cols;
+    return PuzzleVerifier.matchesLine(p, row) && PuzzleVerifier.matchesLine(p, rows + col);
+  }
+}
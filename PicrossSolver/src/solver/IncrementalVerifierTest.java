@@ -0,0 +1,102 @@
+package solver;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author rippe_000
+ *
+ */
+public class IncrementalVerifierTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle partial = FileHandler.getFilePuzzle("testPuzzles/partial.txt");
+
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+
+  int[] smallWrong = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,1,1,2,
+      1,2,1,2,2,
+      1,1,2,2,2};
+
+  /**
+   * Test method for {@link solver.IncrementalVerifier#matchesAt(puzzle.Puzzle, int)}.
+   */
+  @Test
+  public void testMatchesAt() {
+    IncrementalVerifier verifier = new IncrementalVerifier(small);
+    // Unguessed boards match everywhere
+    for (int pos = 0; pos < 25; pos++) {
+      assertTrue(verifier.matchesAt(small, pos));
+    }
+
+    // Solved board matches everywhere
+    small.setBoard(smallSol);
+    for (int pos = 0; pos < 25; pos++) {
+      assertTrue(verifier.matchesAt(small, pos));
+    }
+
+    // Only squares on a wrong line fail. Columns 2 and 4 are the only wrong ones.
+    small.setBoard(smallWrong);
+    assertTrue(verifier.matchesAt(small, 0));
+    assertTrue(verifier.matchesAt(small, 13));
+    assertFalse(verifier.matchesAt(small, 12));
+    assertFalse(verifier.matchesAt(small, 14));
+
+    // Lines that aren't full aren't checked
+    small.setBoard(0, 17);
+    small.setBoard(0, 19);
+    assertTrue(verifier.matchesAt(small, 12));
+    assertTrue(verifier.matchesAt(small, 14));
+
+    // Works on boards that aren't square
+    verifier = new IncrementalVerifier(partial);
+    partial.setBoard(new int[] {1,1,2,2,1,2,2,1});
+    for (int pos = 0; pos < 8; pos++) {
+      assertTrue(verifier.matchesAt(partial, pos));
+    }
+    partial.setBoard(new int[] {1,1,2,2,1,2,1,2});
+    assertFalse(verifier.matchesAt(partial, 7));
+    assertFalse(verifier.matchesAt(partial, 0));
+  }
+
+  /**
+   * Test method for {@link solver.IncrementalVerifier#fitsAt(puzzle.Puzzle, int)}.
+   */
+  @Test
+  public void testFitsAt() {
+    IncrementalVerifier verifier = new IncrementalVerifier(small);
+    assertTrue(verifier.fitsAt(small, 0));
+
+    // Row 0 needs a run of 3, so a crossed out center square can't fit
+    small.setBoard(2, 2);
+    assertFalse(verifier.fitsAt(small, 2));
+    assertTrue(verifier.matchesAt(small, 2));
+
+    // Column 0 needs runs of 2 and 2, so crossing out row 2 is forced and fits
+    small.setBoard(0, 2);
+    small.setBoard(2, 10);
+    assertTrue(verifier.fitsAt(small, 10));
+    small.setBoard(2, 15);
+    assertFalse(verifier.fitsAt(small, 15));
+
+    // Full lines are still compared exactly
+    small.setBoard(smallSol);
+    assertTrue(verifier.fitsAt(small, 12));
+    assertTrue(verifier.fitsAll(small));
+    small.setBoard(smallWrong);
+    assertFalse(verifier.fitsAt(small, 12));
+    assertFalse(verifier.fitsAll(small));
+  }
+}
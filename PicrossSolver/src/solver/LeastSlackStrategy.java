@@ -0,0 +1,67 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Guesses the first unsure square of the line with the least slack, filled in first. Slack is how
+ * far the line's numbers can move: the line's length minus the squares its numbers need. Lines
+ * without numbers have no slack.
+ * 
+ * @author coatrain
+ * 
+ */
+public class LeastSlackStrategy implements BranchingStrategy {
+
+  private final int rows;
+  private final int cols;
+  private final int[] slack;
+
+  /**
+   * Creates a strategy for puzzles with the same numbers as the given puzzle
+   * 
+   * @param p given puzzle
+   */
+  public LeastSlackStrategy(Puzzle p) {
+    rows = p.rows;
+    cols = p.cols;
+    slack = new int[rows + cols];
+    for (int l = 0; l < slack.length; l++) {
+      if (p.clues.count(l) > 0)
+        slack[l] = p.clues.length(l) - p.clues.minLength(l);
+    }
+  }
+
+  @Override
+  public int choosePosition(Puzzle p) {
+    int best = -1;
+    int bestSlack = Integer.MAX_VALUE;
+    for (int row = 0; row < rows; row++) {
+      if (slack[row] >= bestSlack)
+        continue;
+      for (int pos = row * cols; pos < (row + 1) * cols; pos++) {
+        if (p.getSquare(pos) == 0) {
+          best = pos;
+          bestSlack = slack[row];
+          break;
+        }
+      }
+    }
+    for (int col = 0; col < cols; col++) {
+      if (slack[rows + col] >= bestSlack)
+        continue;
+      for (int pos = col; pos < rows * cols; pos += cols) {
+        if (p.getSquare(pos) == 0) {
+          best = pos;
+          bestSlack = slack[rows + col];
+          break;
+        }
+      }
+    }
+    return best;
+  }
+
+  @Override
+  public int chooseValue(Puzzle p, int pos) {
+    return 1;
+  }
+}
@@ -0,0 +1,360 @@
+package solver;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of line solutions, evicting the least recently used line once full. Maps the
+ * numbers of a line and the packed state of its squares to the squares the line solver found must
+ * be filled in or crossed out. Rows and columns with the same numbers and squares share entries,
+ * across boards and across search nodes. Safe to share between threads: entries are split into
+ * shards by hash, each with its own lock, and each shard evicts its own least recently used line.
+ * Lookups hash the line where it is, so a key is only allocated when the line isn't cached.
+ *
+ * @author coatrain
+ *
+ */
+public class LineCache {
+
+  // Caches at least this many lines per shard are split into defaultShards shards
+  private static final int defaultShards = 16;
+  private static final int minShardSize = 256;
+
+  private final Shard[] shards;
+
+  /**
+   * Creates an empty cache, split into shards if it is large enough
+   * 
+   * @param capacity most lines to keep before evicting
+   */
+  public LineCache(int capacity) {
+    this(capacity, capacity >= defaultShards * minShardSize ? defaultShards : 1);
+  }
+
+  /**
+   * Creates an empty cache split into the given number of shards
+   * 
+   * @param capacity most lines to keep before evicting, divided evenly between the shards
+   * @param shards number of shards, rounded up to a power of two
+   */
+  public LineCache(int capacity, int shards) {
+    int count = 1;
+    while (count < shards) {
+      count <<= 1;
+    }
+    this.shards = new Shard[count];
+    for (int i = 0; i < count; i++) {
+      this.shards[i] = new Shard((capacity + count - 1) / count);
+    }
+  }
+
+  /**
+   * Looks up a line, counting a hit or miss
+   * 
+   * @param key numbers and squares of the line
+   * @return the cached result, or null if the line isn't cached
+   */
+  Result get(Key key) {
+    return shard(key).get(key);
+  }
+
+  /**
+   * Caches the result of solving a line
+   * 
+   * @param key numbers and squares of the line before solving, copied from a probe
+   * @param result squares deduced by solving
+   */
+  void put(Key key, Result result) {
+    shard(key).put(key, result);
+  }
+
+  /**
+   * Picks the shard for a key, from different bits than the shard's map uses for buckets
+   */
+  private Shard shard(Key key) {
+    return shards[((key.hash * 0x9E3779B9) >>> 16) & (shards.length - 1)];
+  }
+
+  /**
+   * Gets the number of lookups that found a cached line
+   * 
+   * @return number of hits
+   */
+  public long hits() {
+    long ret = 0;
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        ret += shard.hits;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the number of lookups that didn't find a cached line
+   * 
+   * @return number of misses
+   */
+  public long misses() {
+    long ret = 0;
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        ret += shard.misses;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the number of lines removed to stay within capacity
+   * 
+   * @return number of evictions
+   */
+  public long evictions() {
+    long ret = 0;
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        ret += shard.evictions;
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the number of lines currently cached
+   * 
+   * @return number of entries
+   */
+  public int size() {
+    int ret = 0;
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        ret += shard.map.size();
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Gets the number of shards the cache is split into
+   * 
+   * @return number of shards
+   */
+  public int shards() {
+    return shards.length;
+  }
+
+  /**
+   * Gets the fraction of lookups that found a cached line
+   * 
+   * @return hits divided by lookups, 0 if there have been no lookups
+   */
+  public double hitRate() {
+    long hits = hits();
+    long lookups = hits + misses();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /**
+   * Least recently used map of one shard's lines, with its counters. Locked on itself.
+   */
+  private static final class Shard {
+    private final LinkedHashMap<Key, Result> map;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    Shard(final int capacity) {
+      // Access ordered, so the eldest entry is the least recently used
+      map = new LinkedHashMap<Key, Result>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+          if (size() <= capacity)
+            return false;
+          evictions++;
+          return true;
+        }
+      };
+    }
+
+    synchronized Result get(Key key) {
+      Result ret = map.get(key);
+      if (ret == null)
+        misses++;
+      else
+        hits++;
+      return ret;
+    }
+
+    synchronized void put(Key key, Result result) {
+      map.put(key, result);
+    }
+  }
+
+  /**
+   * Packs a line's squares into 2 bits each
+   * 
+   * @param line state of the line
+   * @param length number of squares in the line
+   * @param value only squares with this value are packed, as 1 bit each, or -1 to pack every
+   *        square's value
+   * @return packed line
+   */
+  private static long[] pack(int[] line, int length, int value) {
+    int bits = value < 0 ? 2 : 1;
+    long[] ret = new long[(length * bits + 63) >>> 6];
+    for (int i = 0; i < length; i++) {
+      long v = value < 0 ? line[i] : (line[i] == value ? 1 : 0);
+      int bit = i * bits;
+      ret[bit >>> 6] |= v << bit;
+    }
+    return ret;
+  }
+
+  /**
+   * Numbers of a line and its squares before solving. A probe refers to the solver's arrays in
+   * place for lookups, and is copied into a stored key, with its own numbers and packed squares,
+   * only when the line has to be cached.
+   */
+  static final class Key {
+    private int[] clue;
+    private int from;
+    private int count;
+    // The line's squares for a probe, or null for a stored key
+    private int[] line;
+    // Packed squares for a stored key
+    private long[] squares;
+    private int length;
+    private int hash;
+
+    /**
+     * Creates a probe, to be pointed at a line with set
+     */
+    Key() {
+    }
+
+    /**
+     * Points this probe at a line without copying it, and hashes it
+     *
+     * @param clues array holding the numbers on the edge of the line
+     * @param from index of the first number for this line in clues
+     * @param count how many numbers the line has
+     * @param line current state of the line
+     * @param length number of squares in the line
+     * @return this probe
+     */
+    Key set(int[] clues, int from, int count, int[] line, int length) {
+      clue = clues;
+      this.from = from;
+      this.count = count;
+      this.line = line;
+      this.length = length;
+      int h = 31 * length + count;
+      for (int i = 0; i < count; i++) {
+        h = 31 * h + clues[from + i];
+      }
+      for (int i = 0; i < length; i++) {
+        h = 31 * h + line[i];
+      }
+      hash = h;
+      return this;
+    }
+
+    /**
+     * Copies the numbers and packs the squares this probe points at into a key that can be stored
+     *
+     * @return new stored key equal to this probe
+     */
+    Key copy() {
+      Key ret = new Key();
+      ret.clue = Arrays.copyOfRange(clue, from, from + count);
+      ret.count = count;
+      ret.squares = pack(line, length, -1);
+      ret.length = length;
+      ret.hash = hash;
+      return ret;
+    }
+
+    /**
+     * Gets the value of a square, from the line or the packed squares
+     */
+    private int square(int i) {
+      if (line != null)
+        return line[i];
+      int bit = i * 2;
+      return (int) (squares[bit >>> 6] >>> bit) & 3;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj)
+        return true;
+      if (!(obj instanceof Key))
+        return false;
+      Key other = (Key) obj;
+      if (hash != other.hash || length != other.length || count != other.count)
+        return false;
+      for (int i = 0; i < count; i++) {
+        if (clue[from + i] != other.clue[other.from + i])
+          return false;
+      }
+      if (line == null && other.line == null)
+        return Arrays.equals(squares, other.squares);
+      for (int i = 0; i < length; i++) {
+        if (square(i) != other.square(i))
+          return false;
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Squares of a line that solving found must be filled in or crossed out
+   */
+  static final class Result {
+    private final boolean solvable;
+    private final long[] filled;
+    private final long[] crossed;
+
+    /**
+     * Records the result of solving a line
+     *
+     * @param solvable whether the line could be solved
+     * @param line state of the line after solving
+     * @param length number of squares in the line
+     */
+    Result(boolean solvable, int[] line, int length) {
+      this.solvable = solvable;
+      filled = solvable ? pack(line, length, 1) : null;
+      crossed = solvable ? pack(line, length, 2) : null;
+    }
+
+    /**
+     * Writes the cached result onto a line
+     *
+     * @param line state of the line before solving, updated in place
+     * @param length number of squares in the line
+     * @return false if the line can't be solved, true otherwise
+     */
+    boolean apply(int[] line, int length) {
+      if (!solvable)
+        return false;
+      for (int i = 0; i < length; i++) {
+        long bit = 1L << i;
+        if ((filled[i >>> 6] & bit) != 0)
+          line[i] = 1;
+        else if ((crossed[i >>> 6] & bit) != 0)
+          line[i] = 2;
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class LineCacheTest {
+
+  /**
+   * Test method for {@link solver.LineSolver#solve(int[], int[])} with a cache.
+   */
+  @Test
+  public void testSolveCached() {
+    LineCache cache = new LineCache(16);
+    LineSolver solver = new LineSolver(cache);
+
+    int[] line = new int[5];
+    assertTrue(solver.solve(new int[] {4}, line));
+    assertTrue(Arrays.equals(line, new int[] {0,1,1,1,0}));
+    assertEquals(0, cache.hits());
+    assertEquals(1, cache.misses());
+
+    // Same numbers and squares are answered from the cache
+    line = new int[5];
+    assertTrue(solver.solve(new int[] {4}, line));
+    assertTrue(Arrays.equals(line, new int[] {0,1,1,1,0}));
+    assertEquals(1, cache.hits());
+    assertEquals(1, cache.size());
+
+    // Different squares miss
+    line = new int[] {1,0,0,0,0};
+    assertTrue(solver.solve(new int[] {4}, line));
+    assertTrue(Arrays.equals(line, new int[] {1,1,1,1,2}));
+    assertEquals(2, cache.misses());
+
+    // Unsolvable lines are cached too
+    line = new int[] {0,2,0,2,0};
+    assertFalse(solver.solve(new int[] {2}, line));
+    line = new int[] {0,2,0,2,0};
+    assertFalse(solver.solve(new int[] {2}, line));
+    assertEquals(2, cache.hits());
+    assertEquals(0.4, cache.hitRate(), 1e-9);
+
+    // Lines longer than one word
+    line = new int[70];
+    line[0] = 1;
+    int[] expected = line.clone();
+    assertTrue(new LineSolver().solve(new int[] {65}, expected));
+    assertTrue(solver.solve(new int[] {65}, line));
+    line = new int[70];
+    line[0] = 1;
+    assertTrue(solver.solve(new int[] {65}, line));
+    assertTrue(Arrays.equals(line, expected));
+  }
+
+  /**
+   * Test method for {@link solver.LineCache#evictions()}.
+   */
+  @Test
+  public void testEvictions() {
+    LineCache cache = new LineCache(2);
+    LineSolver solver = new LineSolver(cache);
+    solver.solve(new int[] {1}, new int[3]);
+    solver.solve(new int[] {2}, new int[3]);
+    // Use the first line so the second is least recently used
+    solver.solve(new int[] {1}, new int[3]);
+    solver.solve(new int[] {3}, new int[3]);
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.evictions());
+
+    solver.solve(new int[] {1}, new int[3]);
+    assertEquals(2, cache.hits());
+    solver.solve(new int[] {2}, new int[3]);
+    assertEquals(2, cache.hits());
+    assertEquals(2, cache.evictions());
+  }
+
+  /**
+   * Test method for {@link solver.LineCache#LineCache(int, int)}.
+   */
+  @Test
+  public void testShards() {
+    assertEquals(1, new LineCache(16).shards());
+    assertEquals(16, new LineCache(DeductiveSolver.defaultCacheSize).shards());
+    LineCache cache = new LineCache(64, 3);
+    assertEquals(4, cache.shards());
+    LineSolver solver = new LineSolver(cache);
+    for (int num = 1; num <= 40; num++) {
+      solver.solve(new int[] {num}, new int[40]);
+    }
+    assertEquals(40, cache.misses());
+    assertTrue(cache.size() <= 64 && cache.size() + cache.evictions() == 40);
+
+    // Numbers are matched where they are in the flat array, not by their offset
+    cache = new LineCache(16, 4);
+    solver = new LineSolver(cache);
+    int[] line = new int[6];
+    assertTrue(solver.solve(new int[] {9, 2, 2, 9}, 1, 2, line, 5));
+    assertTrue(Arrays.equals(line, new int[] {1,1,2,1,1,0}));
+    line = new int[5];
+    assertTrue(solver.solve(new int[] {2, 2}, line));
+    assertTrue(Arrays.equals(line, new int[] {1,1,2,1,1}));
+    assertEquals(1, cache.hits());
+    line = new int[5];
+    assertTrue(solver.solve(new int[] {2, 1}, line));
+    assertEquals(1, cache.hits());
+  }
+
+  /**
+   * Test method for {@link solver.DeductiveSolver#findSolution(Puzzle, LineCache)}.
+   */
+  @Test
+  public void testSharedCache() {
+    LineCache cache = new LineCache(DeductiveSolver.defaultCacheSize);
+    Puzzle p = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+    Puzzle q = p.createCopy();
+    DeductiveSolver.findSolution(p, cache);
+    long misses = cache.misses();
+
+    // Solving the same puzzle again only hits
+    DeductiveSolver.findSolution(q, cache);
+    assertEquals(misses, cache.misses());
+    assertTrue(cache.hits() > 0);
+    assertEquals(p, q);
+  }
+}
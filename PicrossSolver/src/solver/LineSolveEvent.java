@@ -0,0 +1,36 @@
+package solver;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event timing one row or column being solved
+ * 
+ * @author coatrain
+ * 
+ */
+@Name("picross.LineSolve")
+@Label("Line Solve")
+@Category({"Picross", "Solver"})
+@Description("Solving one row or column of a puzzle")
+class LineSolveEvent extends Event {
+
+  static final EventType type = EventType.getEventType(LineSolveEvent.class);
+
+  @Label("Length")
+  int length;
+
+  @Label("Numbers")
+  int numbers;
+
+  @Label("Cached")
+  @Description("Whether the result came from a line cache")
+  boolean cached;
+
+  @Label("Solvable")
+  boolean solvable;
+}
@@ -0,0 +1,343 @@
+package solver;
+
+/**
+ * Solves a single row or column. Given the numbers on the edge of a line and what is currently
+ * known about its squares, finds every square that is filled in or crossed out in all placements of
+ * the numbers that agree with the known squares. Runs in O(length * numbers) time, and can check a
+ * LineCache before solving. Reuses its working arrays between calls, so an instance should only be
+ * used by one thread at a time.
+ * 
+ * @author coatrain
+ * 
+ */
+public class LineSolver {
+
+  private final LineCache cache;
+  private final SolveStats stats;
+  // Reused to look lines up in the cache without allocating
+  private final LineCache.Key probe = new LineCache.Key();
+
+  // leftFits[i * (count + 1) + j] is true if the first i squares can hold exactly the first j
+  // numbers. rightFits[i * (count + 1) + j] is true if squares i and onward can hold exactly the
+  // numbers from j onward.
+  private boolean[] leftFits = new boolean[0];
+  private boolean[] rightFits = new boolean[0];
+  // Number of crossed out squares before each position, for checking if a number fits in O(1)
+  private int[] crossedBefore = new int[0];
+  // Difference array counting placements that fill in each square
+  private int[] fillCover = new int[0];
+  // Same layout as leftFits and rightFits, but counting placements instead. Doubles are used since
+  // counts overflow a long on long lines.
+  private double[] leftCount = new double[0];
+  private double[] rightCount = new double[0];
+
+  /**
+   * Creates a line solver without a cache
+   */
+  public LineSolver() {
+    this(null);
+  }
+
+  /**
+   * Creates a line solver that checks the given cache before solving and caches what it solves
+   * 
+   * @param cache cache to use, may be shared with other line solvers, or null to not cache
+   */
+  public LineSolver(LineCache cache) {
+    this(cache, null);
+  }
+
+  /**
+   * Creates a line solver that checks the given cache before solving, and counts what it solves
+   * 
+   * @param cache cache to use, may be shared with other line solvers, or null to not cache
+   * @param stats stats to count line solves and cache hits in, or null to not count
+   */
+  public LineSolver(LineCache cache, SolveStats stats) {
+    this.cache = cache;
+    this.stats = stats;
+  }
+
+  /**
+   * Solves a line, setting every square that must be filled in to 1 and every square that must be
+   * crossed out to 2
+   * 
+   * @param clue numbers on the edge of the line
+   * @param line current state of the line, updated in place
+   * @return false if no placement of the numbers agrees with the line, true otherwise
+   */
+  public boolean solve(int[] clue, int[] line) {
+    return solve(clue, 0, clue.length, line, line.length);
+  }
+
+  /**
+   * Solves a line, setting every square that must be filled in to 1 and every square that must be
+   * crossed out to 2
+   * 
+   * @param clues array holding the numbers on the edge of the line
+   * @param from index of the first number for this line in clues
+   * @param count how many numbers the line has
+   * @param line current state of the line, updated in place
+   * @param length number of squares in the line
+   * @return false if no placement of the numbers agrees with the line, true otherwise
+   */
+  public boolean solve(int[] clues, int from, int count, int[] line, int length) {
+    LineSolveEvent event = null;
+    if (LineSolveEvent.type.isEnabled()) {
+      event = new LineSolveEvent();
+      event.begin();
+    }
+    boolean solvable;
+    LineCache.Result cached = null;
+    if (cache == null) {
+      solvable = solveLine(clues, from, count, line, length);
+    } else {
+      LineCache.Key key = probe.set(clues, from, count, line, length);
+      cached = cache.get(key);
+      if (cached != null) {
+        solvable = cached.apply(line, length);
+      } else {
+        // Copy the key before solving changes the line
+        key = key.copy();
+        solvable = solveLine(clues, from, count, line, length);
+        cache.put(key, new LineCache.Result(solvable, line, length));
+      }
+    }
+    if (stats != null) {
+      stats.lineSolves++;
+      if (cached != null)
+        stats.cacheHits++;
+    }
+    if (event != null && event.shouldCommit()) {
+      event.length = length;
+      event.numbers = count;
+      event.cached = cached != null;
+      event.solvable = solvable;
+      event.commit();
+    }
+    return solvable;
+  }
+
+  /**
+   * Solves a line without checking the cache
+   * 
+   * @return false if no placement of the numbers agrees with the line, true otherwise
+   */
+  private boolean solveLine(int[] clues, int from, int count, int[] line, int length) {
+    if (!fillLeft(clues, from, count, line, length))
+      return false;
+    fillRight(clues, from, count, line, length);
+    int width = count + 1;
+
+    // Mark squares covered by some valid placement of each number
+    for (int j = 0; j < count; j++) {
+      int num = clues[from + j];
+      for (int start = 0; start + num <= length; start++) {
+        if (crossedBefore[start + num] != crossedBefore[start])
+          continue;
+        // Numbers before j must fit to the left with a gap
+        boolean left =
+            start == 0 ? j == 0 : line[start - 1] != 1 && leftFits[(start - 1) * width + j];
+        if (!left)
+          continue;
+        // Numbers after j must fit to the right with a gap
+        int end = start + num;
+        boolean right =
+            end == length ? j + 1 == count : line[end] != 1 && rightFits[(end + 1) * width + j + 1];
+        if (right) {
+          fillCover[start]++;
+          fillCover[end]--;
+        }
+      }
+    }
+
+    int covered = 0;
+    for (int pos = 0; pos < length; pos++) {
+      covered += fillCover[pos];
+      boolean canFill = covered > 0;
+      // A square can be blank if the numbers split around it
+      boolean canBlank = false;
+      if (line[pos] != 1) {
+        for (int j = 0; j <= count && !canBlank; j++) {
+          canBlank = leftFits[pos * width + j] && rightFits[(pos + 1) * width + j];
+        }
+      }
+      if (!canFill && !canBlank)
+        return false;
+      if (!canBlank)
+        line[pos] = 1;
+      else if (!canFill)
+        line[pos] = 2;
+    }
+    return true;
+  }
+
+  /**
+   * Determines if any placement of the numbers agrees with the known squares of a line, without
+   * changing the line
+   * 
+   * @param clues array holding the numbers on the edge of the line
+   * @param from index of the first number for this line in clues
+   * @param count how many numbers the line has
+   * @param line current state of the line
+   * @param length number of squares in the line
+   * @return true if the line can still be completed
+   */
+  public boolean fits(int[] clues, int from, int count, int[] line, int length) {
+    return fillLeft(clues, from, count, line, length);
+  }
+
+  /**
+   * Finds the fraction of placements of the numbers that agree with the line and fill in a given
+   * square
+   * 
+   * @param clues array holding the numbers on the edge of the line
+   * @param from index of the first number for this line in clues
+   * @param count how many numbers the line has
+   * @param line current state of the line
+   * @param length number of squares in the line
+   * @param pos index of the square in the line
+   * @return fraction between 0 and 1 of placements filling in the square, negative if there are no
+   *         placements
+   */
+  public double fillRatio(int[] clues, int from, int count, int[] line, int length, int pos) {
+    int width = count + 1;
+    int size = (length + 1) * width;
+    if (leftCount.length < size) {
+      leftCount = new double[size];
+      rightCount = new double[size];
+    }
+    countCrossed(line, length);
+
+    // Count from the left: ways the first i squares hold the first j numbers
+    leftCount[0] = 1;
+    for (int j = 1; j <= count; j++) {
+      leftCount[j] = 0;
+    }
+    for (int i = 1; i <= length; i++) {
+      for (int j = 0; j <= count; j++) {
+        double ways = line[i - 1] != 1 ? leftCount[(i - 1) * width + j] : 0;
+        if (j > 0) {
+          int start = i - clues[from + j - 1];
+          if (start >= 0 && crossedBefore[i] == crossedBefore[start]) {
+            if (start == 0)
+              ways += j == 1 ? 1 : 0;
+            else if (line[start - 1] != 1)
+              ways += leftCount[(start - 1) * width + j - 1];
+          }
+        }
+        leftCount[i * width + j] = ways;
+      }
+    }
+    double total = leftCount[length * width + count];
+    if (total == 0)
+      return -1;
+
+    // Count from the right: ways squares from i hold the numbers from j
+    for (int j = 0; j <= count; j++) {
+      rightCount[length * width + j] = j == count ? 1 : 0;
+    }
+    for (int i = length - 1; i > pos; i--) {
+      for (int j = 0; j <= count; j++) {
+        double ways = line[i] != 1 ? rightCount[(i + 1) * width + j] : 0;
+        if (j < count) {
+          int end = i + clues[from + j];
+          if (end <= length && crossedBefore[end] == crossedBefore[i]) {
+            if (end == length)
+              ways += j + 1 == count ? 1 : 0;
+            else if (line[end] != 1)
+              ways += rightCount[(end + 1) * width + j + 1];
+          }
+        }
+        rightCount[i * width + j] = ways;
+      }
+    }
+
+    // Placements leaving the square blank split the numbers around it
+    double blank = 0;
+    if (line[pos] != 1) {
+      for (int j = 0; j <= count; j++) {
+        blank += leftCount[pos * width + j] * rightCount[(pos + 1) * width + j];
+      }
+    }
+    return 1 - blank / total;
+  }
+
+  /**
+   * Fills crossedBefore for the given line, and clears fillCover
+   */
+  private void countCrossed(int[] line, int length) {
+    if (crossedBefore.length < length + 1) {
+      crossedBefore = new int[length + 1];
+      fillCover = new int[length + 1];
+    }
+    crossedBefore[0] = 0;
+    for (int pos = 0; pos < length; pos++) {
+      crossedBefore[pos + 1] = crossedBefore[pos] + (line[pos] == 2 ? 1 : 0);
+      fillCover[pos] = 0;
+    }
+    fillCover[length] = 0;
+  }
+
+  /**
+   * Fills crossedBefore and leftFits for the given line, and clears fillCover
+   * 
+   * @return false if the numbers can't be placed in the line at all
+   */
+  private boolean fillLeft(int[] clues, int from, int count, int[] line, int length) {
+    int width = count + 1;
+    int size = (length + 1) * width;
+    if (leftFits.length < size) {
+      leftFits = new boolean[size];
+      rightFits = new boolean[size];
+    }
+    countCrossed(line, length);
+
+    // Fill from the left: first i squares hold first j numbers
+    leftFits[0] = true;
+    for (int j = 1; j <= count; j++) {
+      leftFits[j] = false;
+    }
+    for (int i = 1; i <= length; i++) {
+      for (int j = 0; j <= count; j++) {
+        // Square i - 1 is blank and the numbers fit before it
+        boolean fit = line[i - 1] != 1 && leftFits[(i - 1) * width + j];
+        if (!fit && j > 0) {
+          // Number j - 1 ends at square i - 1
+          int start = i - clues[from + j - 1];
+          if (start >= 0 && crossedBefore[i] == crossedBefore[start]) {
+            fit = start == 0 ? j == 1
+                : line[start - 1] != 1 && leftFits[(start - 1) * width + j - 1];
+          }
+        }
+        leftFits[i * width + j] = fit;
+      }
+    }
+    return leftFits[length * width + count];
+  }
+
+  /**
+   * Fills rightFits for the given line. crossedBefore must already be filled.
+   */
+  private void fillRight(int[] clues, int from, int count, int[] line, int length) {
+    int width = count + 1;
+    // Fill from the right: squares from i hold numbers from j
+    for (int j = 0; j <= count; j++) {
+      rightFits[length * width + j] = j == count;
+    }
+    for (int i = length - 1; i >= 0; i--) {
+      for (int j = 0; j <= count; j++) {
+        boolean fit = line[i] != 1 && rightFits[(i + 1) * width + j];
+        if (!fit && j < count) {
+          // Number j starts at square i
+          int end = i + clues[from + j];
+          if (end <= length && crossedBefore[end] == crossedBefore[i]) {
+            fit = end == length ? j + 1 == count
+                : line[end] != 1 && rightFits[(end + 1) * width + j + 1];
+          }
+        }
+        rightFits[i * width + j] = fit;
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package solver;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * @author coatrain
+ *
+ */
+public class LineSolverTest {
+
+  LineSolver solver = new LineSolver();
+
+  /**
+   * Test method for {@link solver.LineSolver#solve(int[], int[])}.
+   */
+  @Test
+  public void testSolve() {
+    // Empty line is all crossed out
+    int[] line = new int[3];
+    assertTrue(solver.solve(new int[0], line));
+    assertTrue(Arrays.equals(line, new int[] {2,2,2}));
+
+    // Full line is all filled in
+    line = new int[3];
+    assertTrue(solver.solve(new int[] {3}, line));
+    assertTrue(Arrays.equals(line, new int[] {1,1,1}));
+
+    // Overlap of a large number
+    line = new int[5];
+    assertTrue(solver.solve(new int[] {4}, line));
+    assertTrue(Arrays.equals(line, new int[] {0,1,1,1,0}));
+
+    // Numbers that exactly fit
+    line = new int[5];
+    assertTrue(solver.solve(new int[] {2,2}, line));
+    assertTrue(Arrays.equals(line, new int[] {1,1,2,1,1}));
+
+    // Nothing can be deduced
+    line = new int[4];
+    assertTrue(solver.solve(new int[] {1,1}, line));
+    assertTrue(Arrays.equals(line, new int[4]));
+
+    // Known squares push numbers around
+    line = new int[] {0,0,2,0,0,0,1,0};
+    assertTrue(solver.solve(new int[] {3}, line));
+    assertTrue(Arrays.equals(line, new int[] {2,2,2,2,0,1,1,0}));
+    line = new int[] {1,0,0,0,0,0,0,1};
+    assertTrue(solver.solve(new int[] {2,2}, line));
+    assertTrue(Arrays.equals(line, new int[] {1,1,2,2,2,2,1,1}));
+
+    // Contradictions
+    assertFalse(solver.solve(new int[] {2}, new int[] {1,2,1}));
+    assertFalse(solver.solve(new int[] {1}, new int[] {1,1,0}));
+    assertFalse(solver.solve(new int[0], new int[] {0,1}));
+  }
+
+  /**
+   * Test method for {@link solver.LineSolver#fits(int[], int, int, int[], int)}.
+   */
+  @Test
+  public void testFits() {
+    int[] clues = {5,1,2};
+    // Only use the last two numbers
+    assertTrue(solver.fits(clues, 1, 2, new int[] {0,0,0,0}, 4));
+    assertFalse(solver.fits(clues, 1, 2, new int[] {0,0,0}, 3));
+    assertTrue(solver.fits(clues, 1, 2, new int[] {1,2,1,1,2,2}, 6));
+    assertFalse(solver.fits(clues, 1, 2, new int[] {1,1,0,0,0,0}, 6));
+    // Prefix with too many numbers already
+    assertFalse(solver.fits(clues, 1, 2, new int[] {1,2,1,2,1,0}, 6));
+    // Line is not changed
+    int[] line = {0,0,0,0,0};
+    assertTrue(solver.fits(clues, 0, 1, line, 5));
+    assertTrue(Arrays.equals(line, new int[5]));
+  }
+
+  /**
+   * Test method for {@link solver.LineSolver#fillRatio(int[], int, int, int[], int, int)}.
+   */
+  @Test
+  public void testFillRatio() {
+    // One number of 1 in 4 squares has 4 placements, each filling one square
+    int[] clue = {1};
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[4], 4, 0) == 0.25);
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[4], 4, 3) == 0.25);
+
+    // Overlap is always filled, known squares are used
+    clue = new int[] {3};
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[4], 4, 1) == 1);
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[] {2,0,0,0}, 4, 1) == 1);
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[] {2,0,0,0}, 4, 0) == 0);
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[4], 4, 0) == 0.5);
+
+    // No placements
+    assertTrue(solver.fillRatio(clue, 0, 1, new int[] {0,2,0,0}, 4, 0) < 0);
+  }
+}
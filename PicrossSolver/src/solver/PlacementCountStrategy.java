@@ -0,0 +1,72 @@
+package solver;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+
+/**
+ * Chooses squares with another strategy, then guesses whichever value more placements of the row
+ * and column numbers agree with
+ * 
+ * @author coatrain
+ * 
+ */
+public class PlacementCountStrategy implements BranchingStrategy {
+
+  private final int rows;
+  private final int cols;
+  private final Clues clues;
+  private final int[] nums;
+  private final BranchingStrategy positions;
+  private final LineSolver solver = new LineSolver();
+  private final int[] line;
+
+  /**
+   * Creates a strategy for puzzles with the same numbers as the given puzzle
+   * 
+   * @param p given puzzle
+   * @param positions strategy used to choose squares
+   */
+  public PlacementCountStrategy(Puzzle p, BranchingStrategy positions) {
+    rows = p.rows;
+    cols = p.cols;
+    clues = p.clues;
+    nums = clues.copyNums();
+    this.positions = positions;
+    line = new int[Math.max(rows, cols)];
+  }
+
+  @Override
+  public int choosePosition(Puzzle p) {
+    return positions.choosePosition(p);
+  }
+
+  @Override
+  public int chooseValue(Puzzle p, int pos) {
+    int row = pos / cols;
+    int col = pos % cols;
+    double rowFilled = fillRatio(p, row, col);
+    double colFilled = fillRatio(p, rows + col, row);
+    // Treat the lines as independent and guess the more likely value
+    if (rowFilled < 0 || colFilled < 0)
+      return 1;
+    return rowFilled * colFilled >= (1 - rowFilled) * (1 - colFilled) ? 1 : 2;
+  }
+
+  /**
+   * Finds the fraction of placements on a line filling in a square
+   * 
+   * @param p given puzzle
+   * @param l line index
+   * @param index index of the square in the line
+   * @return fraction of placements filling in the square, negative if there are none
+   */
+  private double fillRatio(Puzzle p, int l, int index) {
+    int length = clues.length(l);
+    int first = clues.firstSquare(l);
+    int step = clues.step(l);
+    for (int i = 0; i < length; i++) {
+      line[i] = p.getSquare(first + i * step);
+    }
+    return solver.fillRatio(nums, clues.offset(l), clues.count(l), line, length, index);
+  }
+}
@@ -0,0 +1,185 @@
+package solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import puzzle.Puzzle;
+
+/**
+ * Races several solvers on the same puzzle, one thread each. The first to find a solution or prove
+ * there is none wins, and the rest are cancelled. Different heuristics win on different shapes of
+ * puzzle, so racing them cuts the time of the slowest solves. If every solver stops early, the
+ * result whose board has the most squares known is returned. The solvers share a transposition
+ * table, so states one solver exhausts are skipped by the others.
+ * 
+ * The solvers run on an executor given by the caller, or on a pool created for each solve. Creating
+ * and tearing down a pool costs more than solving a small puzzle, so when solving many puzzles,
+ * create one executor with a thread for each solver and pass it to every portfolio, as in
+ * defaultPortfolio(executor).
+ * 
+ * @author coatrain
+ * 
+ */
+public class PortfolioSolver implements Solver {
+
+  // Most states the shared transposition table holds when the options don't give one
+  public static final int defaultTableSize = 1 << 16;
+
+  private final List<Solver> solvers;
+  // Runs the solvers, or null to create a pool for each solve
+  private final ExecutorService executor;
+
+  /**
+   * Creates a portfolio of the given solvers, creating a pool for each solve
+   * 
+   * @param solvers solvers to race, at least one
+   */
+  public PortfolioSolver(Solver... solvers) {
+    this(Arrays.asList(solvers));
+  }
+
+  /**
+   * Creates a portfolio of the given solvers, creating a pool for each solve
+   * 
+   * @param solvers solvers to race, at least one
+   */
+  public PortfolioSolver(List<Solver> solvers) {
+    this(solvers, null);
+  }
+
+  /**
+   * Creates a portfolio of the given solvers, run on the given executor. The executor is shared
+   * between solves and never shut down by the portfolio. Solvers only race each other when the
+   * executor has a thread free for each of them; the rest wait for a thread, and start already
+   * cancelled if another solver wins first.
+   * 
+   * @param solvers solvers to race, at least one
+   * @param executor executor to run the solvers on, or null to create a pool for each solve
+   */
+  public PortfolioSolver(List<Solver> solvers, ExecutorService executor) {
+    if (solvers.isEmpty())
+      throw new IllegalArgumentException("Portfolio needs at least one solver");
+    this.solvers = new ArrayList<Solver>(solvers);
+    this.executor = executor;
+  }
+
+  /**
+   * Creates a portfolio of differently configured searches, with and without probing
+   * 
+   * @return default portfolio
+   */
+  public static PortfolioSolver defaultPortfolio() {
+    return defaultPortfolio(null);
+  }
+
+  /**
+   * Creates a portfolio of differently configured searches, with and without probing, run on the
+   * given executor. This is the way to solve many puzzles, sharing one executor between them.
+   * 
+   * @param executor executor with a thread for each of the 4 solvers, or null to create a pool for
+   *        each solve
+   * @return default portfolio
+   */
+  public static PortfolioSolver defaultPortfolio(ExecutorService executor) {
+    return new PortfolioSolver(Arrays.<Solver>asList(new SearchSolver(Heuristic.FIRST_BLANK, true),
+        new SearchSolver(Heuristic.FAIL_FIRST, true),
+        new SearchSolver(Heuristic.LEAST_SLACK, true, 1),
+        new SearchSolver(Heuristic.PLACEMENT_COUNT, true, 1)), executor);
+  }
+
+  /**
+   * Gets the solvers raced by this portfolio
+   * 
+   * @return list of solvers
+   */
+  public List<Solver> solvers() {
+    return new ArrayList<Solver>(solvers);
+  }
+
+  @Override
+  public String name() {
+    StringBuilder ret = new StringBuilder("portfolio[");
+    for (int i = 0; i < solvers.size(); i++) {
+      if (i > 0)
+        ret.append(", ");
+      ret.append(solvers.get(i).name());
+    }
+    return ret.append(']').toString();
+  }
+
+  @Override
+  public SolveResult solve(final Puzzle p, SolveOptions options) {
+    // Cancelled when a solver wins, or when the caller cancels
+    if (options == null)
+      options = new SolveOptions();
+    CancellationToken race = new CancellationToken(options.token);
+    final SolveOptions raceOptions = options.copy().cancellation(race);
+    if (raceOptions.table == null)
+      raceOptions.transpositions(new TranspositionTable(defaultTableSize));
+    ExecutorService pool =
+        executor != null ? executor : Executors.newFixedThreadPool(solvers.size());
+    try {
+      CompletionService<SolveResult> results = new ExecutorCompletionService<SolveResult>(pool);
+      for (final Solver solver : solvers) {
+        results.submit(new Callable<SolveResult>() {
+          @Override
+          public SolveResult call() {
+            return solver.solve(p, raceOptions);
+          }
+        });
+      }
+
+      SolveResult best = null;
+      for (int i = 0; i < solvers.size(); i++) {
+        SolveResult result;
+        try {
+          result = results.take().get();
+        } catch (ExecutionException e) {
+          throw new IllegalStateException("Solver failed", e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          if (best == null)
+            return new SolveResult(SolveResult.Status.CANCELLED, p.createCopy(), new SolveStats());
+          return new SolveResult(SolveResult.Status.CANCELLED, best.board, best.stats);
+        }
+        if (result.status == SolveResult.Status.SOLVED
+            || result.status == SolveResult.Status.NO_SOLUTION)
+          return result;
+        if (best == null || known(result.board) > known(best.board))
+          best = result;
+      }
+      return best;
+    } finally {
+      // Losing solvers see the token at their next guess and stop
+      race.cancel();
+      if (executor == null)
+        pool.shutdown();
+    }
+  }
+
+  /**
+   * Counts the squares of a board that are filled in or crossed out
+   */
+  private static int known(Puzzle p) {
+    if (p == null)
+      return -1;
+    int ret = 0;
+    for (int pos = 0; pos < p.rows * p.cols; pos++) {
+      if (p.getSquare(pos) != 0)
+        ret++;
+    }
+    return ret;
+  }
+
+  @Override
+  public String toString() {
+    return name();
+  }
+}
@@ -0,0 +1,157 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class PortfolioSolverTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  Puzzle probe = FileHandler.getFilePuzzle("testPuzzles/probe7x5.txt");
+
+  /**
+   * Solver that never finishes on its own, only stopping once cancelled
+   */
+  private static class StallingSolver implements Solver {
+    volatile boolean stopped = false;
+
+    @Override
+    public String name() {
+      return "stalling";
+    }
+
+    @Override
+    public SolveResult solve(Puzzle p, SolveOptions options) {
+      while (!options.token.isCancelled()) {
+        Thread.yield();
+      }
+      stopped = true;
+      return new SolveResult(SolveResult.Status.CANCELLED, p.createCopy(), new SolveStats());
+    }
+  }
+
+  /**
+   * Test method for {@link solver.PortfolioSolver#solve(Puzzle, SolveOptions)}.
+   */
+  @Test
+  public void testSolve() {
+    SolveResult result = PortfolioSolver.defaultPortfolio().solve(multiLarge, new SolveOptions());
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+    assertTrue(PuzzleVerifier.matchesFull(result.board));
+
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    result = PortfolioSolver.defaultPortfolio().solve(multi2x2, new SolveOptions());
+    assertEquals(SolveResult.Status.NO_SOLUTION, result.status);
+
+    // No options means no limits
+    assertEquals(SolveResult.Status.SOLVED,
+        PortfolioSolver.defaultPortfolio().solve(small, null).status);
+  }
+
+  /**
+   * Test method for {@link solver.PortfolioSolver#solve(Puzzle, SolveOptions)} cancelling losers.
+   */
+  @Test
+  public void testCancelsLosers() throws InterruptedException {
+    StallingSolver stalling = new StallingSolver();
+    PortfolioSolver portfolio =
+        new PortfolioSolver(stalling, new SearchSolver(Heuristic.FIRST_BLANK, true));
+    SolveResult result = portfolio.solve(small, new SolveOptions());
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+    for (int i = 0; i < 1000 && !stalling.stopped; i++) {
+      Thread.sleep(1);
+    }
+    assertTrue(stalling.stopped);
+  }
+
+  /**
+   * Test method for {@link solver.PortfolioSolver#solve(Puzzle, SolveOptions)} when every solver
+   * stops early.
+   */
+  @Test
+  public void testAllStopped() {
+    // Deduction gets further than a brute force search cut off at its first guess
+    PortfolioSolver portfolio = new PortfolioSolver(new SearchSolver(Heuristic.FIRST_BLANK, false),
+        new SearchSolver(null, false));
+    SolveResult result = portfolio.solve(probe, new SolveOptions().nodeBudget(0));
+    assertEquals(SolveResult.Status.DEPTH_LIMIT, result.status);
+    int known = 0;
+    for (int pos = 0; pos < probe.rows * probe.cols; pos++) {
+      if (result.board.getSquare(pos) != 0)
+        known++;
+    }
+    assertTrue(known > 0 && known < probe.rows * probe.cols);
+
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    result = portfolio.solve(multiLarge, new SolveOptions().cancellation(token));
+    assertEquals(SolveResult.Status.CANCELLED, result.status);
+    assertTrue(new CancellationToken(token).isCancelled());
+  }
+
+  /**
+   * Test method for {@link solver.PortfolioSolver#solve(Puzzle, SolveOptions)} on a caller's
+   * executor.
+   */
+  @Test
+  public void testExecutor() throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      PortfolioSolver portfolio = new PortfolioSolver(Arrays.<Solver>asList(
+          new SearchSolver(Heuristic.FIRST_BLANK, true),
+          new SearchSolver(Heuristic.FAIL_FIRST, true)), executor);
+      // The executor is reused between solves and left running
+      for (int i = 0; i < 3; i++) {
+        SolveResult result = portfolio.solve(multiLarge.createCopy(), new SolveOptions());
+        assertEquals(SolveResult.Status.SOLVED, result.status);
+        assertTrue(PuzzleVerifier.matchesFull(result.board));
+      }
+      assertFalse(executor.isShutdown());
+      ExecutorService shared = Executors.newFixedThreadPool(4);
+      try {
+        PortfolioSolver defaults = PortfolioSolver.defaultPortfolio(shared);
+        assertEquals(SolveResult.Status.SOLVED, defaults.solve(small, new SolveOptions()).status);
+        assertEquals(SolveResult.Status.SOLVED, defaults.solve(probe, new SolveOptions()).status);
+      } finally {
+        shared.shutdown();
+      }
+
+      // A solver waiting for a thread starts already cancelled once another has won
+      StallingSolver waiting = new StallingSolver();
+      SolveResult result = new PortfolioSolver(Arrays.<Solver>asList(
+          new SearchSolver(Heuristic.FIRST_BLANK, true), new StallingSolver(), waiting), executor)
+          .solve(small, new SolveOptions());
+      assertEquals(SolveResult.Status.SOLVED, result.status);
+      for (int i = 0; i < 1000 && !waiting.stopped; i++) {
+        Thread.sleep(1);
+      }
+      assertTrue(waiting.stopped);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Test method for {@link solver.PortfolioSolver#name()}.
+   */
+  @Test
+  public void testName() {
+    assertEquals("portfolio[hybrid/first-blank, deductive]", new PortfolioSolver(
+        new SearchSolver(Heuristic.FIRST_BLANK, true), new SearchSolver(null, false)).name());
+    assertTrue(PortfolioSolver.defaultPortfolio().solvers().size() == 4);
+  }
+}
@@ -0,0 +1,247 @@
+package solver;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import puzzle.Puzzle;
+
+/**
+ * Probes unsure squares once propagation reaches a fixed point. Each unsure square is set to
+ * filled in and then crossed out, and propagated each time. If one value leads to a row or column
+ * that can't be solved, the square must be the other value, and any square deduced the same way
+ * from both values must be that value. Probes of different squares are independent, so they are
+ * split across a fork join pool, each task working on its own copy of the board that shares the
+ * puzzle's numbers. Given options, probing stops once the deadline passes or the token is
+ * cancelled, keeping only the deductions of probes that finished. Given stats, each task counts
+ * into its own stats, added to its parent's when joined, so counting needs no locking.
+ * 
+ * @author coatrain
+ * 
+ */
+public class Prober {
+
+  // Fewest squares a task probes before it stops splitting
+  private static final int minSquares = 16;
+
+  /**
+   * Probes every unsure square and propagates what is found, repeating until probing finds nothing
+   * new
+   * 
+   * @param p given puzzle, at a propagation fixed point, updated in place
+   * @param cache cache of solved lines shared by every probe, or null to not cache
+   * @param parallelism number of threads to probe with
+   * @return false if the puzzle was found to be unsolvable, true otherwise
+   */
+  public static boolean probe(Puzzle p, LineCache cache, int parallelism) {
+    return probe(p, cache, parallelism, null);
+  }
+
+  /**
+   * Probes every unsure square and propagates what is found, repeating until probing finds nothing
+   * new or the given options stop it. Stopping early leaves the puzzle partly deduced, but every
+   * square set on it is still certain.
+   * 
+   * @param p given puzzle, at a propagation fixed point, updated in place
+   * @param cache cache of solved lines shared by every probe, or null to not cache
+   * @param parallelism number of threads to probe with
+   * @param options options whose deadline and token to check, or null to never stop early
+   * @return false if the puzzle was found to be unsolvable, true otherwise, including when stopped
+   */
+  public static boolean probe(Puzzle p, LineCache cache, int parallelism, SolveOptions options) {
+    return probe(p, cache, parallelism, null, options);
+  }
+
+  /**
+   * Probes every unsure square and propagates what is found, repeating until probing finds nothing
+   * new or the given options stop it, counting the line solves and propagation rounds of every
+   * probe. Propagation time is summed over the probing threads, so it can exceed the time probing.
+   * 
+   * @param p given puzzle, at a propagation fixed point, updated in place
+   * @param cache cache of solved lines shared by every probe, or null to not cache
+   * @param parallelism number of threads to probe with
+   * @param stats stats to count in, or null to not count
+   * @param options options whose deadline and token to check, or null to never stop early
+   * @return false if the puzzle was found to be unsolvable, true otherwise, including when stopped
+   */
+  public static boolean probe(Puzzle p, LineCache cache, int parallelism, SolveStats stats,
+      SolveOptions options) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      Propagator propagator = new Propagator(p, cache, stats, options);
+      while (true) {
+        int[] unsure = unsurePositions(p);
+        if (unsure.length == 0 || options != null && options.stopStatus() != null)
+          return true;
+        ProbeTask task = new ProbeTask(p.createCopy(), cache, newStats(stats), options, unsure, 0,
+            unsure.length, Math.max(minSquares, unsure.length / (parallelism * 4)));
+        int[] found = pool.invoke(task);
+        if (stats != null)
+          stats.add(task.stats);
+        // Apply every deduction before propagating them together
+        boolean changed = false;
+        for (int pos = 0; pos < found.length; pos++) {
+          if (found[pos] < 0)
+            return false;
+          if (found[pos] > 0) {
+            p.setBoard(found[pos], pos);
+            changed = true;
+          }
+        }
+        if (!changed)
+          return true;
+        if (!propagator.propagate(p))
+          return propagator.stopStatus() != null;
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Gets fresh stats for a task to count in, or null if nothing is counted
+   */
+  private static SolveStats newStats(SolveStats stats) {
+    return stats == null ? null : new SolveStats();
+  }
+
+  /**
+   * Gets the positions of every unsure square
+   */
+  private static int[] unsurePositions(Puzzle p) {
+    int squares = p.rows * p.cols;
+    int count = 0;
+    for (int pos = 0; pos < squares; pos++) {
+      if (p.getSquare(pos) == 0)
+        count++;
+    }
+    int[] ret = new int[count];
+    count = 0;
+    for (int pos = 0; pos < squares; pos++) {
+      if (p.getSquare(pos) == 0)
+        ret[count++] = pos;
+    }
+    return ret;
+  }
+
+  /**
+   * Task probing a range of unsure squares. Its result holds, for each square of the board, the
+   * value probing deduced, 0 if nothing was deduced, or -1 if neither value is possible.
+   */
+  private static class ProbeTask extends RecursiveTask<int[]> {
+    private static final long serialVersionUID = 1L;
+
+    private final Puzzle p;
+    private final LineCache cache;
+    private final SolveStats stats;
+    private final SolveOptions options;
+    private final int[] unsure;
+    private final int from;
+    private final int to;
+    private final int threshold;
+
+    /**
+     * @param p board to probe, shared by tasks and never changed
+     * @param cache cache of solved lines, or null to not cache
+     * @param stats stats only this task counts in, or null to not count
+     * @param options options whose deadline and token to check, or null to never stop early
+     * @param unsure positions of the unsure squares
+     * @param from index of the first square in unsure to probe
+     * @param to index after the last square in unsure to probe
+     * @param threshold most squares to probe without splitting
+     */
+    ProbeTask(Puzzle p, LineCache cache, SolveStats stats, SolveOptions options, int[] unsure,
+        int from, int to, int threshold) {
+      this.p = p;
+      this.cache = cache;
+      this.stats = stats;
+      this.options = options;
+      this.unsure = unsure;
+      this.from = from;
+      this.to = to;
+      this.threshold = threshold;
+    }
+
+    @Override
+    protected int[] compute() {
+      if (to - from > threshold) {
+        int mid = (from + to) >>> 1;
+        ProbeTask left =
+            new ProbeTask(p, cache, newStats(stats), options, unsure, from, mid, threshold);
+        left.fork();
+        // The right half runs on this thread, so it can count in this task's stats
+        int[] ret = new ProbeTask(p, cache, stats, options, unsure, mid, to, threshold).compute();
+        merge(ret, left.join());
+        if (stats != null)
+          stats.add(left.stats);
+        return ret;
+      }
+
+      int squares = p.rows * p.cols;
+      int[] ret = new int[squares];
+      // Squares deduced when probing filled in, and their values, for the current probe only
+      int[] filledPositions = new int[squares];
+      int[] filledValues = new int[squares];
+      Puzzle copy = p.createCopy();
+      Propagator propagator = new Propagator(copy, cache, stats, options);
+      Trail trail = new Trail(squares);
+      for (int i = from; i < to; i++) {
+        int pos = unsure[i];
+        trail.assign(copy, 1, pos);
+        boolean filledFits = propagator.propagateFrom(copy, pos, trail);
+        int filledMark = trail.mark();
+        for (int j = 0; j < filledMark; j++) {
+          filledPositions[j] = trail.position(j);
+          filledValues[filledPositions[j]] = copy.getSquare(filledPositions[j]);
+        }
+        trail.undo(copy, 0);
+
+        trail.assign(copy, 2, pos);
+        boolean crossedFits = propagator.propagateFrom(copy, pos, trail);
+        if (propagator.stopStatus() != null) {
+          // A stopped propagation didn't prove anything, so drop this square and stop
+          trail.undo(copy, 0);
+          break;
+        }
+        if (!filledFits && !crossedFits) {
+          ret[pos] = -1;
+        } else if (!filledFits) {
+          merge(ret, pos, 2);
+        } else if (!crossedFits) {
+          merge(ret, pos, 1);
+        } else {
+          // Keep squares deduced to the same value either way
+          for (int j = 1; j < trail.mark(); j++) {
+            int square = trail.position(j);
+            if (filledValues[square] == copy.getSquare(square))
+              merge(ret, square, filledValues[square]);
+          }
+        }
+        trail.undo(copy, 0);
+        for (int j = 0; j < filledMark; j++) {
+          filledValues[filledPositions[j]] = 0;
+        }
+      }
+      return ret;
+    }
+  }
+
+  /**
+   * Adds the deductions of one task to another's
+   */
+  private static void merge(int[] into, int[] from) {
+    for (int pos = 0; pos < into.length; pos++) {
+      if (from[pos] != 0)
+        merge(into, pos, from[pos]);
+    }
+  }
+
+  /**
+   * Adds a single deduction, marking the square impossible if it conflicts with an earlier one
+   */
+  private static void merge(int[] into, int pos, int val) {
+    if (into[pos] == 0)
+      into[pos] = val;
+    else if (into[pos] != val)
+      into[pos] = -1;
+  }
+}
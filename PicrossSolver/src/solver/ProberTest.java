@@ -0,0 +1,111 @@
+package solver;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class ProberTest {
+  Puzzle probe = FileHandler.getFilePuzzle("testPuzzles/probe7x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  int[] probeSol = {
+      1,1,2,2,2,
+      2,2,1,2,1,
+      2,1,1,2,1,
+      1,1,2,1,2,
+      2,1,2,2,2,
+      2,2,1,1,1,
+      2,1,1,1,1};
+
+  /**
+   * Test method for {@link solver.Prober#probe(puzzle.Puzzle, solver.LineCache, int)}.
+   */
+  @Test
+  public void testProbe() {
+    // Propagation alone stalls on this puzzle
+    Puzzle stalled = DeductiveSolver.findSolution(probe.createCopy());
+    assertTrue(stalled.getFirstBlankPos() >= 0);
+
+    // Probing solves it, with any number of threads
+    for (int threads = 1; threads <= 4; threads++) {
+      Puzzle p = stalled.createCopy();
+      assertTrue(Prober.probe(p, new LineCache(64), threads));
+      assertTrue(Arrays.equals(p.getBoard(), probeSol));
+    }
+
+    // Squares that differ between solutions are left unsure
+    assertTrue(Prober.probe(multi2x2, null, 2));
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[4]));
+  }
+
+  /**
+   * Test method for
+   * {@link solver.Prober#probe(puzzle.Puzzle, solver.LineCache, int, solver.SolveOptions)}.
+   */
+  @Test
+  public void testProbeStopped() {
+    Puzzle stalled = DeductiveSolver.findSolution(probe.createCopy());
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    SolveOptions options = new SolveOptions().cancellation(token);
+
+    // Stopping isn't a contradiction, and nothing is deduced from probes that didn't finish
+    Puzzle p = stalled.createCopy();
+    assertTrue(Prober.probe(p, null, 2, options));
+    assertTrue(p.equals(stalled));
+
+    // Neither is a stopped propagation before probing
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    DeductiveSolver.findSolution(multi2x2, null, 2, null, options);
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,1,0,0}));
+  }
+
+  /**
+   * Test method for
+   * {@link solver.Prober#probe(puzzle.Puzzle, solver.LineCache, int, solver.SolveStats, solver.SolveOptions)}.
+   */
+  @Test
+  public void testProbeStats() {
+    Puzzle stalled = DeductiveSolver.findSolution(probe.createCopy());
+    int unsure = 0;
+    for (int pos = 0; pos < stalled.rows * stalled.cols; pos++) {
+      if (stalled.getSquare(pos) == 0)
+        unsure++;
+    }
+
+    // Every probe is counted however the squares are split between tasks
+    SolveStats single = new SolveStats();
+    assertTrue(Prober.probe(stalled.createCopy(), null, 1, single, null));
+    assertTrue(single.propagations() >= 2 * unsure);
+    assertTrue(single.lineSolves() >= 2 * single.propagations());
+    for (int threads = 2; threads <= 4; threads++) {
+      SolveStats stats = new SolveStats();
+      assertTrue(Prober.probe(stalled.createCopy(), null, threads, stats, null));
+      assertTrue(stats.propagations() == single.propagations());
+      assertTrue(stats.lineSolves() == single.lineSolves());
+    }
+  }
+
+  /**
+   * Test method for {@link solver.DeductiveSolver#findSolution(puzzle.Puzzle, solver.LineCache, int)}.
+   */
+  @Test
+  public void testFindSolutionProbing() {
+    DeductiveSolver.findSolution(probe, null, 2);
+    assertTrue(Arrays.equals(probe.getBoard(), probeSol));
+
+    // Solved puzzles have nothing left to probe
+    Puzzle p = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+    DeductiveSolver.findSolution(p, null, 2);
+    assertFalse(p.getFirstBlankPos() >= 0);
+  }
+}
@@ -0,0 +1,245 @@
+package solver;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+
+/**
+ * Propagates deductions between rows and columns. Keeps a queue of lines whose squares changed
+ * since they were last solved and only solves those, so lines that have settled are not solved
+ * again. Lines 0 to rows - 1 are rows, and lines rows to rows + cols - 1 are columns. An instance
+ * reuses its working arrays, so it should only be used by one thread at a time. Given options, the
+ * deadline and cancellation token are checked before each line is solved, and once either stops
+ * the propagator every propagation fails and stopStatus says why.
+ *
+ * @author rippe_000
+ *
+ */
+public class Propagator {
+
+  private final int rows;
+  private final int cols;
+  private final Clues clues;
+  private final int[] nums;
+  private final LineSolver solver;
+  private final SolveStats stats;
+  private final SolveOptions options;
+  private SolveResult.Status stopStatus = null;
+
+  // Circular queue of lines to solve, with flags so each line is queued at most once
+  private final int[] queue;
+  private final boolean[] queued;
+  private int head = 0;
+  private int size = 0;
+
+  // Scratch arrays for the line being solved and its state before solving
+  private final int[] line;
+  private final int[] before;
+
+  /**
+   * Creates a propagator for puzzles with the same numbers as the given puzzle
+   * 
+   * @param p given puzzle
+   */
+  public Propagator(Puzzle p) {
+    this(p, null);
+  }
+
+  /**
+   * Creates a propagator for puzzles with the same numbers as the given puzzle, checking a cache of
+   * solved lines before solving each line
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared with other propagators, or null to not cache
+   */
+  public Propagator(Puzzle p, LineCache cache) {
+    this(p, cache, null);
+  }
+
+  /**
+   * Creates a propagator for puzzles with the same numbers as the given puzzle, checking a cache of
+   * solved lines before solving each line and counting its work
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared with other propagators, or null to not cache
+   * @param stats stats to count propagation rounds, line solves and time in, or null to not count
+   */
+  public Propagator(Puzzle p, LineCache cache, SolveStats stats) {
+    this(p, cache, stats, null);
+  }
+
+  /**
+   * Creates a propagator for puzzles with the same numbers as the given puzzle, checking a cache of
+   * solved lines before solving each line, counting its work and stopping at the deadline or
+   * cancellation token in the given options
+   * 
+   * @param p given puzzle
+   * @param cache cache of solved lines, may be shared with other propagators, or null to not cache
+   * @param stats stats to count propagation rounds, line solves and time in, or null to not count
+   * @param options options whose deadline and token to check, or null to never stop early
+   */
+  public Propagator(Puzzle p, LineCache cache, SolveStats stats, SolveOptions options) {
+    this.stats = stats;
+    this.options = options;
+    solver = new LineSolver(cache, stats);
+    rows = p.rows;
+    cols = p.cols;
+    clues = p.clues;
+    nums = clues.copyNums();
+    queue = new int[rows + cols];
+    queued = new boolean[rows + cols];
+    line = new int[Math.max(rows, cols)];
+    before = new int[line.length];
+  }
+
+  /**
+   * Solves every line of the board, then keeps solving lines that changed until a fixed point is
+   * reached
+   * 
+   * @param p given puzzle, updated in place
+   * @return false if a line was found that cannot be solved or propagation was stopped, true
+   *         otherwise
+   */
+  public boolean propagate(Puzzle p) {
+    return propagate(p, null);
+  }
+
+  /**
+   * Solves every line of the board, then keeps solving lines that changed until a fixed point is
+   * reached. Deduced squares are recorded on a trail so they can be undone.
+   * 
+   * @param p given puzzle, updated in place
+   * @param trail trail to record deduced squares on, or null to not record them
+   * @return false if a line was found that cannot be solved or propagation was stopped, true
+   *         otherwise
+   */
+  public boolean propagate(Puzzle p, Trail trail) {
+    for (int i = 0; i < rows + cols; i++) {
+      enqueue(i);
+    }
+    return run(p, trail);
+  }
+
+  /**
+   * Propagates the effects of a single changed square. Only the row and column through the square
+   * are solved at first.
+   * 
+   * @param p given puzzle, updated in place
+   * @param pos position of the changed square
+   * @return false if a line was found that cannot be solved or propagation was stopped, true
+   *         otherwise
+   */
+  public boolean propagateFrom(Puzzle p, int pos) {
+    return propagateFrom(p, pos, null);
+  }
+
+  /**
+   * Propagates the effects of a single changed square, recording deduced squares on a trail so they
+   * can be undone. Only the row and column through the square are solved at first.
+   * 
+   * @param p given puzzle, updated in place
+   * @param pos position of the changed square
+   * @param trail trail to record deduced squares on, or null to not record them
+   * @return false if a line was found that cannot be solved or propagation was stopped, true
+   *         otherwise
+   */
+  public boolean propagateFrom(Puzzle p, int pos, Trail trail) {
+    enqueue(pos / cols);
+    enqueue(rows + pos % cols);
+    return run(p, trail);
+  }
+
+  /**
+   * Solves queued lines until the queue is empty
+   * 
+   * @param p given puzzle, updated in place
+   * @param trail trail to record deduced squares on, or null to not record them
+   * @return false if a line cannot be solved or propagation was stopped
+   */
+  private boolean run(Puzzle p, Trail trail) {
+    if (stats == null)
+      return drain(p, trail);
+    long start = System.nanoTime();
+    boolean ret = drain(p, trail);
+    stats.propagations++;
+    stats.propagationNanos += System.nanoTime() - start;
+    return ret;
+  }
+
+  /**
+   * Gets why propagation was stopped. A propagation that returned false because it was stopped
+   * doesn't mean a line can't be solved, and may have left deductions half applied.
+   * 
+   * @return CANCELLED or TIMEOUT if the options stopped propagation, null otherwise
+   */
+  public SolveResult.Status stopStatus() {
+    return stopStatus;
+  }
+
+  /**
+   * Solves queued lines until the queue is empty, without counting
+   * 
+   * @param p given puzzle, updated in place
+   * @param trail trail to record deduced squares on, or null to not record them
+   * @return false if a line cannot be solved or propagation was stopped
+   */
+  private boolean drain(Puzzle p, Trail trail) {
+    while (size > 0) {
+      if (options != null && (stopStatus != null || (stopStatus = options.stopStatus()) != null)) {
+        clear();
+        return false;
+      }
+      int current = queue[head];
+      head = (head + 1) % queue.length;
+      size--;
+      queued[current] = false;
+
+      boolean isRow = current < rows;
+      int length = clues.length(current);
+      int first = clues.firstSquare(current);
+      int step = clues.step(current);
+      for (int i = 0; i < length; i++) {
+        line[i] = p.getSquare(first + i * step);
+        before[i] = line[i];
+      }
+      if (!solver.solve(nums, clues.offset(current), clues.count(current), line, length)) {
+        clear();
+        return false;
+      }
+      // Write back changes and queue the crossing lines
+      for (int i = 0; i < length; i++) {
+        if (line[i] != before[i]) {
+          if (trail == null)
+            p.setBoard(line[i], first + i * step);
+          else
+            trail.assign(p, line[i], first + i * step);
+          enqueue(isRow ? rows + i : i);
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Adds a line to the queue if it isn't already queued
+   * 
+   * @param l line index
+   */
+  private void enqueue(int l) {
+    if (queued[l])
+      return;
+    queued[l] = true;
+    queue[(head + size) % queue.length] = l;
+    size++;
+  }
+
+  /**
+   * Empties the queue
+   */
+  private void clear() {
+    while (size > 0) {
+      queued[queue[head]] = false;
+      head = (head + 1) % queue.length;
+      size--;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author rippe_000
+ *
+ */
+public class PropagatorTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+
+  /**
+   * Test method for {@link solver.Propagator#propagate(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testPropagate() {
+    Propagator prop = new Propagator(small);
+    assertTrue(prop.propagate(small));
+    assertTrue(Arrays.equals(small.getBoard(), smallSol));
+
+    // Works the same on packed boards
+    Puzzle packed = FileHandler.getFilePuzzle("testPuzzles/5x5.txt").createCopy(true);
+    assertTrue(prop.propagate(packed));
+    assertTrue(Arrays.equals(packed.getBoard(), smallSol));
+
+    // Nothing to deduce
+    assertTrue(new Propagator(multi2x2).propagate(multi2x2));
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[4]));
+
+    // Contradiction
+    int[] wrong = new int[25];
+    wrong[12] = 1;
+    small.setBoard(wrong);
+    assertFalse(prop.propagate(small));
+  }
+
+  /**
+   * Test method for {@link solver.Propagator#propagateFrom(puzzle.Puzzle, int)}.
+   */
+  @Test
+  public void testPropagateFrom() {
+    Propagator prop = new Propagator(multi2x2);
+    multi2x2.setBoard(1, 0);
+    assertTrue(prop.propagateFrom(multi2x2, 0));
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,2,2,1}));
+
+    // Contradiction leaves the propagator usable
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    assertFalse(prop.propagateFrom(multi2x2, 1));
+    multi2x2.setBoard(new int[] {0,2,0,0});
+    assertTrue(prop.propagateFrom(multi2x2, 1));
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,2,2,1}));
+  }
+
+  /**
+   * Test method for {@link solver.Propagator#stopStatus()}.
+   */
+  @Test
+  public void testStopStatus() {
+    CancellationToken token = new CancellationToken();
+    Propagator prop = new Propagator(small, null, null, new SolveOptions().cancellation(token));
+    assertTrue(prop.propagate(small.createCopy()));
+    assertNull(prop.stopStatus());
+
+    // Stops before solving a line, and stays stopped
+    token.cancel();
+    assertFalse(prop.propagate(small));
+    assertEquals(SolveResult.Status.CANCELLED, prop.stopStatus());
+    assertTrue(Arrays.equals(small.getBoard(), new int[25]));
+    assertFalse(prop.propagateFrom(small, 0));
+
+    prop = new Propagator(small, null, null, new SolveOptions().deadline(System.nanoTime()));
+    assertFalse(prop.propagate(small));
+    assertEquals(SolveResult.Status.TIMEOUT, prop.stopStatus());
+  }
+}
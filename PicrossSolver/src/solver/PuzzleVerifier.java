@@ -1,7 +1,6 @@
 package solver;
 
-import java.util.ArrayList;
-
+import puzzle.Clues;
 import puzzle.Puzzle;
 
 /**
@@ -18,73 +17,57 @@ public class PuzzleVerifier {
    * @return false if the board is determined impossible to solve, otherwise true
    */
   public static boolean isValidPuzzle(Puzzle p) {
+    if (p == null)
+      return false;
+    return isValidClues(p.clues);
+  }
+
+  /**
+   * Determines if numbers on the edges could have solutions. Clues are checked with this once when
+   * they are created, so puzzles sharing them don't need to be checked again.
+   * 
+   * @param clues given numbers
+   * @return false if the numbers are determined impossible to solve, otherwise true
+   */
+  public static boolean isValidClues(Clues clues) {
     boolean ret = true;
 
-    ret = ret && sameNumSquares(p);
-    ret = ret && squaresFit(p);
+    ret = ret && sameNumSquares(clues);
+    ret = ret && squaresFit(clues);
 
     return ret;
   }
 
   /**
-   * Returns true if all squares of the columns and p.rows could fit in the board
+   * Returns true if all squares of the columns and rows could fit in the board
    * 
-   * @param p given puzzle
-   * @return true if each column and row could contain specified squares. False if they don't, or
-   *         given null puzzle
+   * @param clues given numbers
+   * @return true if each column and row could contain specified squares. False if they don't
    */
-  private static boolean squaresFit(Puzzle p) {
-    if (p == null)
-      return false;
-    for (ArrayList<Integer> list : p.colNums) {
-      int lineTotal = 0;
-      for (Integer i : list) {
-        // Add i+1 to account for extra space between numbers
-        lineTotal += i + 1;
-      }
-      // Remove extra space
-      lineTotal--;
-      // Compare to spaces in column
-      if (lineTotal > p.rows)
-        return false;
-    }
-
-    for (ArrayList<Integer> list : p.rowNums) {
-      int lineTotal = 0;
-      for (Integer i : list) {
-        // Add i+1 to account for extra space between numbers
-        lineTotal += i + 1;
-      }
-      // Remove extra space
-      lineTotal--;
-      // Compare to spaces in row
-      if (lineTotal > p.cols)
+  private static boolean squaresFit(Clues clues) {
+    for (int l = 0; l < clues.lines(); l++) {
+      // Compare squares and spaces between numbers to spaces in line
+      if (clues.minLength(l) > clues.length(l))
         return false;
     }
     return true;
   }
 
   /**
-   * Checks if there are the same number of required squares in columns as in p.rows. If false,
+   * Checks if there are the same number of required squares in columns as in rows. If false,
    * puzzle cannot be solved.
    * 
-   * @param p given puzzle
-   * @return True if number of required squares are same for both columns and p.rows. False if they
-   *         don't match or puzzle is null
+   * @param clues given numbers
+   * @return True if number of required squares are same for both columns and rows. False if they
+   *         don't match
    */
-  private static boolean sameNumSquares(Puzzle p) {
-    if (p == null)
-      return false;
+  private static boolean sameNumSquares(Clues clues) {
     int total = 0;
-    for (ArrayList<Integer> a : p.colNums) {
-      for (Integer i : a) {
-        total += i;
-      }
+    for (int row = 0; row < clues.rows; row++) {
+      total += clues.sum(row);
     }
-    for (ArrayList<Integer> a : p.rowNums) {
-      for (Integer i : a) {
-        total -= i;
-      }
+    for (int col = 0; col < clues.cols; col++) {
+      total -= clues.sum(clues.rows + col);
     }
     return total == 0;
   }
@@ -96,65 +79,62 @@ public class PuzzleVerifier {
    * @return true if all full p.rows and columns match, false otherwise
    */
   public static boolean matchesFull(Puzzle p) {
-    for (int i = 0; i < p.cols; i++) {
-      ArrayList<Integer> currentRow = new ArrayList<Integer>();
-      int continuousFilled = 0;
-      boolean skip = false;
-      // Iterate through row i of board
-      for (int j = 0; j < p.rows; j++) {
-        int pos = j + i * p.cols;
-        // Break if row isn't full of guessed values
-        if (p.getBoard()[pos] == 0) {
-          skip = true; // Set so that we know we broke the loop
-          break;
-        }
-
-        // Add to list if next is blank and last square was not blank
-        if (p.getBoard()[pos] == 2 && continuousFilled != 0) {
-          currentRow.add(continuousFilled);
-          continuousFilled = 0;
-          // Add to the number of square in a row if square is filled in
-        } else if (p.getBoard()[pos] == 1) {
-          continuousFilled++;
-        }
-      }
-      // Skip line if skip flag is true
-      if (skip)
-        continue;
-      // Add the last continuous patch of squares if there are any
-      if (continuousFilled > 0)
-        currentRow.add(continuousFilled);
-      // Check if row matches what we counted
-      if (!currentRow.equals(p.rowNums.get(i)))
+    for (int l = 0; l < p.clues.lines(); l++) {
+      if (!matchesLine(p, l))
         return false;
     }
+    return true;
+  }
 
-    for (int k = 0; k < p.rows; k++) {
-      ArrayList<Integer> currentCol = new ArrayList<Integer>();
-      int continuousFilled = 0;
-      boolean skip = false;
-      // Iterate through column k of board
-      for (int l = 0; l < p.rows; l++) {
-        int pos = k + l * p.cols;
-        if (p.getBoard()[pos] == 0) {
-          skip = true;
-          break;
-        }
-
-        if (p.getBoard()[pos] == 2 && continuousFilled != 0) {
-          currentCol.add(continuousFilled);
-          continuousFilled = 0;
-        } else if (p.getBoard()[pos] == 1) {
-          continuousFilled++;
-        }
+  /**
+   * Determine if a single row or column matches its numbers, if it is fully filled. Lines are
+   * indexed as in Clues, rows first.
+   * 
+   * @param p given puzzle
+   * @param line line index
+   * @return false if the line is full and doesn't match, true otherwise
+   */
+  public static boolean matchesLine(Puzzle p, int line) {
+    Clues clues = p.clues;
+    int count = clues.count(line);
+    int length = clues.length(line);
+    int step = clues.step(line);
+    int next = 0;
+    int continuousFilled = 0;
+    boolean matches = true;
+    for (int i = 0, pos = clues.firstSquare(line); i < length; i++, pos += step) {
+      int square = p.getSquare(pos);
+      // Line isn't full, so it can't be checked yet
+      if (square == 0)
+        return true;
+      if (square == 1) {
+        continuousFilled++;
+      } else if (continuousFilled > 0) {
+        // Keep scanning after a mismatch in case the line turns out not to be full
+        matches &= next < count && clues.get(line, next) == continuousFilled;
+        next++;
+        continuousFilled = 0;
       }
-      if (skip)
-        continue;
-      if (continuousFilled > 0)
-        currentCol.add(continuousFilled);
-      if (!currentCol.equals(p.colNums.get(k)))
-        return false;
     }
-    return true;
+    // Check the last continuous patch of squares if there is one
+    if (continuousFilled > 0) {
+      matches &= next < count && clues.get(line, next) == continuousFilled;
+      next++;
+    }
+    return matches && next == count;
+  }
+
+  /**
+   * Determine if every row and column of board, full or not, could still be completed to match the
+   * numbers on edges
+   * 
+   * @param p given puzzle
+   * @return true if each line has some placement of its numbers that fits its guessed squares,
+   *         false otherwise or if given null puzzle
+   */
+  public static boolean isFeasible(Puzzle p) {
+    if (p == null)
+      return false;
+    return new IncrementalVerifier(p).fitsAll(p);
   }
 }
@@ -131,4 +131,46 @@ public class PuzzleVerifierTest {
     assertTrue(PuzzleVerifier.matchesFull(singleSquare));
     assertTrue(PuzzleVerifier.matchesFull(small));
   }
+
+  /**
+   * Test method for {@link solver.PuzzleVerifier#isFeasible(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testIsFeasible() {
+    // Lines that aren't full are rejected once their numbers can't fit
+    int[] smallNoFull = {
+        0,1,1,1,1,
+        1,0,1,1,1,
+        1,1,0,1,1,
+        1,1,1,0,1,
+        1,1,1,1,0};
+    int[] smallPartial = {
+        1,0,0,0,0,
+        1,0,0,0,0,
+        2,0,0,0,1,
+        1,0,0,0,0,
+        1,0,0,0,0};
+    int[] smallTooManyRuns = {
+        1,2,1,0,0,
+        0,0,0,0,0,
+        0,0,0,0,0,
+        0,0,0,0,0,
+        0,0,0,0,0};
+
+    assertTrue(PuzzleVerifier.isFeasible(empty));
+    assertTrue(PuzzleVerifier.isFeasible(small));
+    small.setBoard(smallPartial);
+    assertTrue(PuzzleVerifier.isFeasible(small));
+    small.setBoard(smallNoFull);
+    assertFalse(PuzzleVerifier.isFeasible(small));
+    small.setBoard(smallTooManyRuns);
+    assertFalse(PuzzleVerifier.isFeasible(small));
+
+    // Full boards behave like matchesFull
+    small.setBoard(smallWrong);
+    assertFalse(PuzzleVerifier.isFeasible(small));
+    small.setBoard(smallSol);
+    assertTrue(PuzzleVerifier.isFeasible(small));
+    assertFalse(PuzzleVerifier.isFeasible(null));
+  }
 }
@@ -0,0 +1,346 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Depth first search over the unsure squares of a single board. Guesses are made in place and
+ * recorded on a trail, and backtracking unwinds the trail, so no boards are copied or allocated
+ * while searching. Each call to nextSolution continues the search from the last solution found.
+ * Given a propagator, every guess is followed by line propagation, so the search only guesses once
+ * deduction stalls and backtracks as soon as a line can't be solved. Given options, the limits
+ * are checked before every guess, in a fixed order: a cancelled token stops the search first, then
+ * a square past the max depth skips its branch, then the node budget and deadline stop the search,
+ * and last the transposition table skips known failed states. Skipping a branch doesn't guess, so
+ * it isn't held to the node budget. A propagator given options is also stopped by their token or
+ * deadline, and the search stops with it. The board with the most squares known is kept in case
+ * the search is stopped early. With a transposition table in the options, states the table knows
+ * have no solutions are skipped, and every guess whose subtree is exhausted without a solution is
+ * recorded in it.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SearchEngine {
+
+  private final Puzzle p;
+  private final BranchingStrategy strategy;
+  private final IncrementalVerifier verifier;
+  private final Propagator propagator;
+  private final SolveStats stats;
+  private final SolveOptions options;
+  private final TranspositionTable table;
+  private final Trail trail;
+
+  // Stack of guesses: the square guessed, the value guessed first, the trail mark before the guess,
+  // and whether the second value has been tried yet
+  private final int[] framePos;
+  private final int[] frameValue;
+  private final int[] frameMark;
+  private final boolean[] frameSecond;
+  private int depth = 0;
+  // Frames below this index had a solution or a skipped branch below them, so they can't be
+  // recorded as failed when they are exhausted. The same for the state before the first guess.
+  private int cleanFrom = 0;
+  private boolean rootClean = true;
+
+  private boolean started = false;
+  private boolean exhausted = false;
+
+  // Limits: guesses made, why the search was stopped early, whether branches past the max depth
+  // were skipped, and the board with the most squares known along with how many were known
+  private long nodes = 0;
+  private SolveResult.Status stopStatus = null;
+  private boolean skipped = false;
+  private int[] best = null;
+  private int bestKnown = -1;
+
+  /**
+   * Creates a search over the given puzzle's board. The board is changed in place while searching.
+   * 
+   * @param p given puzzle
+   */
+  public SearchEngine(Puzzle p) {
+    this(p, new FirstBlankStrategy());
+  }
+
+  /**
+   * Creates a search over the given puzzle's board, choosing guesses with the given strategy. The
+   * board is changed in place while searching.
+   * 
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   */
+  public SearchEngine(Puzzle p, BranchingStrategy strategy) {
+    this(p, strategy, null);
+  }
+
+  /**
+   * Creates a search over the given puzzle's board, choosing guesses with the given strategy and
+   * propagating after every guess. The board is changed in place while searching.
+   * 
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param propagator propagator for the puzzle, or null to only check the lines through each guess
+   */
+  public SearchEngine(Puzzle p, BranchingStrategy strategy, Propagator propagator) {
+    this(p, strategy, propagator, null);
+  }
+
+  /**
+   * Creates a search over the given puzzle's board, choosing guesses with the given strategy,
+   * propagating after every guess and counting its work. The board is changed in place while
+   * searching.
+   * 
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param propagator propagator for the puzzle, or null to only check the lines through each guess
+   * @param stats stats to count nodes, backtracks, depth and search time in, or null to not count
+   */
+  public SearchEngine(Puzzle p, BranchingStrategy strategy, Propagator propagator,
+      SolveStats stats) {
+    this(p, strategy, propagator, stats, null);
+  }
+
+  /**
+   * Creates a search over the given puzzle's board, choosing guesses with the given strategy,
+   * propagating after every guess, counting its work and stopping at the given limits. The board
+   * is changed in place while searching.
+   * 
+   * @param p given puzzle
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param propagator propagator for the puzzle, or null to only check the lines through each guess
+   * @param stats stats to count nodes, backtracks, depth and search time in, or null to not count
+   * @param options limits to stop searching at, or null to search until finished
+   */
+  public SearchEngine(Puzzle p, BranchingStrategy strategy, Propagator propagator,
+      SolveStats stats, SolveOptions options) {
+    this.p = p;
+    this.stats = stats;
+    this.options = options;
+    table = options == null ? null : options.table;
+    this.strategy = strategy;
+    this.propagator = propagator;
+    verifier = new IncrementalVerifier(p);
+    int squares = p.rows * p.cols;
+    trail = new Trail(squares);
+    framePos = new int[squares];
+    frameValue = new int[squares];
+    frameMark = new int[squares];
+    frameSecond = new boolean[squares];
+  }
+
+  /**
+   * Finds the next solution. When one is found, the puzzle's board holds it until the next call.
+   * Once there are no more solutions, the board is restored to how it was before searching.
+   * 
+   * @return true if another solution was found, false if there are no more
+   */
+  public boolean nextSolution() {
+    if (stats == null)
+      return search();
+    long start = System.nanoTime();
+    try {
+      return search();
+    } finally {
+      stats.searchNanos += System.nanoTime() - start;
+    }
+  }
+
+  /**
+   * Finds the next solution, without timing
+   * 
+   * @return true if another solution was found, false if there are no more
+   */
+  private boolean search() {
+    if (exhausted)
+      return false;
+    if (!started) {
+      started = true;
+      boolean fits = propagator == null ? verifier.fitsAll(p) : propagator.propagate(p, trail);
+      if (!fits) {
+        if (propagator != null)
+          stopStatus = propagator.stopStatus();
+        finish();
+        return false;
+      }
+    } else if (!retreat()) {
+      // Continue from the previous solution by backtracking out of it
+      finish();
+      return false;
+    }
+
+    while (true) {
+      int pos = strategy.choosePosition(p);
+      if (pos < 0) {
+        cleanFrom = depth;
+        rootClean = false;
+        return true; // puzzle is solved
+      }
+      if (options != null) {
+        recordBest();
+        // Checked in the order given in the class comment, so a cancel always reports CANCELLED
+        // and a deduction only search reports DEPTH_LIMIT even with no node budget
+        if (options.token != null && options.token.isCancelled()) {
+          stopStatus = SolveResult.Status.CANCELLED;
+          finish();
+          return false;
+        }
+        if (depth >= options.maxDepth) {
+          // Skip this branch instead of guessing deeper
+          skipped = true;
+          cleanFrom = depth;
+          rootClean = false;
+          if (!retreat()) {
+            finish();
+            return false;
+          }
+          continue;
+        }
+        if (nodes >= options.nodeBudget || options.pastDeadline()) {
+          stopStatus = SolveResult.Status.TIMEOUT;
+          finish();
+          return false;
+        }
+        if (table != null && table.isFailed(p)) {
+          // Another search already exhausted this state
+          if (!retreat()) {
+            finish();
+            return false;
+          }
+          continue;
+        }
+      }
+      // Guess the strategy's value for the next square, backtracking if that can't fit
+      framePos[depth] = pos;
+      frameValue[depth] = strategy.chooseValue(p, pos);
+      frameMark[depth] = trail.mark();
+      frameSecond[depth] = false;
+      depth++;
+      if (stats != null && depth > stats.maxDepth)
+        stats.maxDepth = depth;
+      if (!assign(frameValue[depth - 1], pos, false) && !retreat()) {
+        finish();
+        return false;
+      }
+    }
+  }
+
+  /**
+   * Copies the board if it has more squares known than any board seen so far. Squares only become
+   * known along the trail, so the trail's length is the number known since the search started.
+   */
+  private void recordBest() {
+    int known = trail.mark();
+    if (known <= bestKnown)
+      return;
+    bestKnown = known;
+    if (best == null)
+      best = new int[p.rows * p.cols];
+    for (int pos = 0; pos < best.length; pos++) {
+      best[pos] = p.getSquare(pos);
+    }
+  }
+
+  /**
+   * Gets why the search was stopped before it finished
+   * 
+   * @return CANCELLED or TIMEOUT if a limit stopped the search, null otherwise
+   */
+  public SolveResult.Status stopStatus() {
+    return stopStatus;
+  }
+
+  /**
+   * Determines if any branches were skipped for being deeper than the max depth, so a search that
+   * found nothing may have missed solutions
+   * 
+   * @return true if a branch was skipped
+   */
+  public boolean skippedBranches() {
+    return skipped;
+  }
+
+  /**
+   * Gets the board with the most squares known seen while searching with options, which may hold
+   * guesses that were later undone
+   * 
+   * @return copy of the best board, or null if the search has no options or never got to guess
+   */
+  public int[] bestBoard() {
+    return best;
+  }
+
+  /**
+   * Ends the search, undoing any squares deduced before the first guess
+   */
+  private void finish() {
+    exhausted = true;
+    trail.undo(p, 0);
+  }
+
+  /**
+   * Backtracks to the most recent guess that still has a value to try, and tries it
+   * 
+   * @return true if a guess was changed to a value that fits, false if the search is finished
+   */
+  private boolean retreat() {
+    while (depth > 0) {
+      // A stopped propagation proved nothing, so nothing is recorded as failed
+      if (stopStatus != null)
+        return false;
+      int top = depth - 1;
+      trail.undo(p, frameMark[top]);
+      if (stats != null)
+        stats.backtracks++;
+      if (!frameSecond[top]) {
+        // Try the other value instead
+        frameSecond[top] = true;
+        if (assign(3 - frameValue[top], framePos[top], true))
+          return true;
+      } else {
+        // Both values failed, so the state before this guess has no solutions
+        if (table != null && top >= cleanFrom)
+          table.markFailed(p);
+        depth--;
+        cleanFrom = Math.min(cleanFrom, depth);
+      }
+    }
+    if (table != null && rootClean && stopStatus == null)
+      table.markFailed(p);
+    return false;
+  }
+
+  /**
+   * Sets a square on the trail and checks the lines through it, propagating if there is a
+   * propagator
+   * 
+   * @param val value to set
+   * @param pos position of the square
+   * @param second whether this is the other value, after the first failed
+   * @return true if the row and column through the square can still fit
+   */
+  private boolean assign(int val, int pos, boolean second) {
+    BranchEvent event = null;
+    if (BranchEvent.type.isEnabled()) {
+      event = new BranchEvent();
+      event.begin();
+    }
+    nodes++;
+    if (stats != null)
+      stats.nodes++;
+    trail.assign(p, val, pos);
+    boolean fits =
+        propagator != null ? propagator.propagateFrom(p, pos, trail) : verifier.fitsAt(p, pos);
+    if (!fits && propagator != null)
+      stopStatus = propagator.stopStatus();
+    if (event != null && event.shouldCommit()) {
+      event.position = pos;
+      event.value = val;
+      event.depth = depth;
+      event.second = second;
+      event.fits = fits;
+      event.commit();
+    }
+    return fits;
+  }
+}
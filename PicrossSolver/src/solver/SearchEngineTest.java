@@ -0,0 +1,70 @@
+package solver;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SearchEngineTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+
+  /**
+   * Test method for {@link solver.SearchEngine#nextSolution()}.
+   */
+  @Test
+  public void testNextSolution() {
+    // Single solution, then board is restored
+    SearchEngine search = new SearchEngine(small);
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(small.getBoard(), smallSol));
+    assertFalse(search.nextSolution());
+    assertTrue(Arrays.equals(small.getBoard(), new int[25]));
+    assertFalse(search.nextSolution());
+
+    // Filled in is guessed before blank
+    search = new SearchEngine(multi2x2);
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,2,2,1}));
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {2,1,1,2}));
+    assertFalse(search.nextSolution());
+
+    // Count solutions, on a packed board
+    Puzzle packed = multiLarge.createCopy(true);
+    search = new SearchEngine(packed);
+    int count = 0;
+    while (search.nextSolution()) {
+      assertTrue(PuzzleVerifier.matchesFull(packed));
+      assertTrue(packed.getFirstBlankPos() == -1);
+      count++;
+    }
+    assertTrue(count == 8);
+
+    // Guessed squares are kept, and wrong guesses give no solutions
+    multi2x2.setBoard(new int[] {0,1,0,0});
+    search = new SearchEngine(multi2x2);
+    assertTrue(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {2,1,1,2}));
+    assertFalse(search.nextSolution());
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {0,1,0,0}));
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    assertFalse(new SearchEngine(multi2x2).nextSolution());
+  }
+}
@@ -0,0 +1,101 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Solver built from the pieces of the other solvers: optionally propagating lines and probing
+ * squares before guessing, then guessing with a given heuristic. Without propagation this is
+ * BruteForceSolver, with it this is HybridSolver, and without a heuristic it only deduces like
+ * DeductiveSolver.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SearchSolver implements Solver {
+
+  private final Heuristic heuristic;
+  private final boolean propagate;
+  private final int probeThreads;
+  private final LineCache cache;
+
+  /**
+   * Creates a solver that guesses with the given heuristic
+   * 
+   * @param heuristic strategy to guess with, or null to only deduce
+   * @param propagate whether to propagate lines after every guess
+   */
+  public SearchSolver(Heuristic heuristic, boolean propagate) {
+    this(heuristic, propagate, 0);
+  }
+
+  /**
+   * Creates a solver that probes unsure squares before guessing with the given heuristic
+   * 
+   * @param heuristic strategy to guess with, or null to only deduce
+   * @param propagate whether to propagate lines after every guess, always done if probing
+   * @param probeThreads number of threads to probe with, or 0 to not probe
+   */
+  public SearchSolver(Heuristic heuristic, boolean propagate, int probeThreads) {
+    this(heuristic, propagate, probeThreads, null);
+  }
+
+  /**
+   * Creates a solver that probes unsure squares before guessing with the given heuristic, sharing
+   * one cache of solved lines between all of its solves
+   * 
+   * @param heuristic strategy to guess with, or null to only deduce
+   * @param propagate whether to propagate lines after every guess, always done if probing
+   * @param probeThreads number of threads to probe with, or 0 to not probe
+   * @param cache cache of solved lines to share, or null to create a new cache for each solve
+   */
+  public SearchSolver(Heuristic heuristic, boolean propagate, int probeThreads, LineCache cache) {
+    this.cache = cache;
+    this.heuristic = heuristic;
+    this.propagate = propagate || probeThreads > 0 || heuristic == null;
+    this.probeThreads = probeThreads;
+  }
+
+  @Override
+  public String name() {
+    String ret = propagate ? "hybrid" : "brute-force";
+    if (heuristic == null)
+      ret = "deductive";
+    if (probeThreads > 0)
+      ret += "+probe";
+    if (heuristic != null)
+      ret += "/" + heuristic.name().toLowerCase().replace('_', '-');
+    return ret;
+  }
+
+  @Override
+  public SolveResult solve(Puzzle p, SolveOptions options) {
+    SolveStats stats = new SolveStats();
+    if (p == null)
+      return new SolveResult(SolveResult.Status.NO_SOLUTION, null, stats);
+    Puzzle copy = p.createCopy();
+    LineCache cache = null;
+    if (propagate)
+      cache = this.cache != null ? this.cache : new LineCache(DeductiveSolver.defaultCacheSize);
+    if (probeThreads > 0) {
+      // Probed squares are certain, so they are kept on the copy instead of being trailed. If the
+      // options stop probing, the search stops for the same reason before guessing.
+      try {
+        DeductiveSolver.findSolution(copy, cache, probeThreads, stats, options);
+      } catch (IllegalStateException e) {
+        return new SolveResult(SolveResult.Status.NO_SOLUTION, p.createCopy(), stats);
+      }
+    }
+    if (heuristic == null)
+      options = (options == null ? new SolveOptions() : options.copy()).maxDepth(0);
+    BranchingStrategy strategy =
+        heuristic == null ? new FirstBlankStrategy() : heuristic.create(copy);
+    Propagator propagator = propagate ? new Propagator(copy, cache, stats, options) : null;
+    SearchEngine search = new SearchEngine(copy, strategy, propagator, stats, options);
+    return SolveResult.of(copy, search, search.nextSolution(), stats);
+  }
+
+  @Override
+  public String toString() {
+    return name();
+  }
+}
@@ -0,0 +1,111 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SearchSolverTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+
+  /**
+   * Test method for {@link solver.SearchSolver#solve(Puzzle, SolveOptions)}.
+   */
+  @Test
+  public void testSolve() {
+    for (Heuristic heuristic : Heuristic.values()) {
+      Solver[] solvers = {new SearchSolver(heuristic, false), new SearchSolver(heuristic, true),
+          new SearchSolver(heuristic, true, 1)};
+      for (Solver solver : solvers) {
+        SolveResult result = solver.solve(multiLarge, new SolveOptions());
+        assertEquals(solver.name(), SolveResult.Status.SOLVED, result.status);
+        assertTrue(PuzzleVerifier.matchesFull(result.board));
+        // The given puzzle is not changed
+        assertTrue(result.board != multiLarge);
+        assertTrue(multiLarge.equals(FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt")));
+      }
+    }
+
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    assertEquals(SolveResult.Status.NO_SOLUTION,
+        new SearchSolver(Heuristic.FIRST_BLANK, true).solve(multi2x2, new SolveOptions()).status);
+    assertEquals(SolveResult.Status.NO_SOLUTION,
+        new SearchSolver(null, true, 1).solve(multi2x2, new SolveOptions()).status);
+
+    // No options means no limits, with or without a heuristic
+    assertEquals(SolveResult.Status.SOLVED,
+        new SearchSolver(null, false).solve(small, null).status);
+    assertEquals(SolveResult.Status.SOLVED,
+        new SearchSolver(Heuristic.FIRST_BLANK, true, 1).solve(multiLarge, null).status);
+  }
+
+  /**
+   * Test method for {@link solver.SearchSolver#solve(Puzzle, SolveOptions)} without a heuristic.
+   */
+  @Test
+  public void testDeductionOnly() {
+    Solver solver = new SearchSolver(null, false);
+    // Deduction alone solves the small puzzle but not one with several solutions
+    assertEquals(SolveResult.Status.SOLVED, solver.solve(small, new SolveOptions()).status);
+    SolveResult result = solver.solve(multiLarge, new SolveOptions());
+    assertEquals(SolveResult.Status.DEPTH_LIMIT, result.status);
+    assertTrue(result.stats.nodes() == 0);
+  }
+
+  /**
+   * Test method for {@link solver.SearchSolver#solve(Puzzle, SolveOptions)} stopped before it can
+   * guess.
+   */
+  @Test
+  public void testStoppedDeducing() {
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    // Deduction would solve the small puzzle, but propagating and probing check the limits too
+    Solver[] solvers = {new SearchSolver(null, false),
+        new SearchSolver(Heuristic.LEAST_SLACK, true),
+        new SearchSolver(Heuristic.LEAST_SLACK, true, 1)};
+    for (Solver solver : solvers) {
+      assertEquals(solver.name(), SolveResult.Status.CANCELLED,
+          solver.solve(small, new SolveOptions().cancellation(token)).status);
+      assertEquals(solver.name(), SolveResult.Status.TIMEOUT,
+          solver.solve(small, new SolveOptions().deadline(System.nanoTime())).status);
+    }
+  }
+
+  /**
+   * Test method for {@link solver.SearchSolver#SearchSolver(Heuristic, boolean, int, LineCache)}.
+   */
+  @Test
+  public void testSharedCache() {
+    LineCache cache = new LineCache(1024);
+    Solver solver = new SearchSolver(Heuristic.LEAST_SLACK, true, 1, cache);
+    assertEquals(SolveResult.Status.SOLVED, solver.solve(multiLarge, null).status);
+    long misses = cache.misses();
+    assertTrue(misses > 0);
+
+    // Solving again finds every line already in the shared cache
+    assertEquals(SolveResult.Status.SOLVED, solver.solve(multiLarge, null).status);
+    assertTrue(cache.misses() == misses);
+  }
+
+  /**
+   * Test method for {@link solver.SearchSolver#name()}.
+   */
+  @Test
+  public void testName() {
+    assertEquals("brute-force/first-blank", new SearchSolver(Heuristic.FIRST_BLANK, false).name());
+    assertEquals("hybrid/fail-first", new SearchSolver(Heuristic.FAIL_FIRST, true).name());
+    assertEquals("hybrid+probe/placement-count",
+        new SearchSolver(Heuristic.PLACEMENT_COUNT, false, 2).name());
+    assertEquals("deductive", new SearchSolver(null, false).name());
+  }
+}
@@ -0,0 +1,141 @@
+package solver;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import puzzle.Puzzle;
+
+/**
+ * Lazily iterates over the solutions of a puzzle. Each solution is only searched for when it is
+ * asked for, and the search continues from the previous solution, so memory does not grow with the
+ * number of solutions and callers can stop at any point. Searches a copy of the puzzle, so the
+ * given puzzle's board is not changed. The search can't be restarted, so an instance can only be
+ * iterated once: iterator and stream return views of this one search, and only the first of them
+ * may be taken before iterating.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SolutionIterator implements Iterator<Puzzle>, Iterable<Puzzle> {
+
+  private final Puzzle p;
+  private final SearchEngine search;
+  private long remaining;
+  // Whether iteration has started, after which the limit can't change and no new view is given out
+  private boolean started = false;
+
+  // Whether the search has been moved to the next solution that hasn't been returned yet
+  private boolean advanced = false;
+  private boolean found = false;
+
+  /**
+   * Creates an iterator over every solution to a puzzle by brute force
+   * 
+   * @param p given puzzle, or null for no solutions
+   */
+  public SolutionIterator(Puzzle p) {
+    this(p, new FirstBlankStrategy(), Long.MAX_VALUE);
+  }
+
+  /**
+   * Creates an iterator over at most limit solutions to a puzzle by brute force, guessing squares
+   * in the order given by a strategy
+   * 
+   * @param p given puzzle, or null for no solutions
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param limit most solutions to return
+   */
+  public SolutionIterator(Puzzle p, BranchingStrategy strategy, long limit) {
+    this(p, strategy, null, limit);
+  }
+
+  /**
+   * Creates an iterator over at most limit solutions to a puzzle, guessing squares in the order
+   * given by a strategy and propagating after each guess
+   * 
+   * @param p given puzzle, or null for no solutions
+   * @param strategy strategy choosing which square to guess and its first value
+   * @param cache cache of solved lines to propagate with, or null to search without propagating
+   * @param limit most solutions to return
+   */
+  public SolutionIterator(Puzzle p, BranchingStrategy strategy, LineCache cache, long limit) {
+    this.p = p == null ? null : p.createCopy();
+    remaining = limit;
+    if (this.p == null)
+      search = null;
+    else
+      search = new SearchEngine(this.p, strategy,
+          cache == null ? null : new Propagator(this.p, cache));
+  }
+
+  /**
+   * Lowers the most solutions this iterator will return, before iteration starts
+   * 
+   * @param n most solutions to return
+   * @return this iterator
+   * @throws IllegalStateException if iteration has already started
+   */
+  public SolutionIterator limit(long n) throws IllegalStateException {
+    if (started)
+      throw new IllegalStateException("Limit set after iteration started");
+    remaining = Math.min(remaining, n);
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() {
+    started = true;
+    if (!advanced) {
+      advanced = true;
+      found = search != null && remaining > 0 && search.nextSolution();
+    }
+    return found;
+  }
+
+  @Override
+  public Puzzle next() {
+    if (!hasNext())
+      throw new NoSuchElementException();
+    advanced = false;
+    remaining--;
+    return p.createCopy();
+  }
+
+  /**
+   * Gets this iterator, so a for-each loop can go over the solutions once
+   * 
+   * @return this iterator
+   * @throws IllegalStateException if iteration has already started
+   */
+  @Override
+  public Iterator<Puzzle> iterator() throws IllegalStateException {
+    begin();
+    return this;
+  }
+
+  /**
+   * Creates a sequential stream of the solutions. Solutions are searched for as the stream is
+   * consumed.
+   * 
+   * @return stream of solutions
+   * @throws IllegalStateException if iteration has already started
+   */
+  public Stream<Puzzle> stream() throws IllegalStateException {
+    begin();
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+        Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+  }
+
+  /**
+   * Marks iteration as started, rejecting a second pass over the same search
+   */
+  private void begin() {
+    if (started)
+      throw new IllegalStateException("Solutions can only be iterated once");
+    started = true;
+  }
+}
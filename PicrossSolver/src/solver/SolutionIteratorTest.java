@@ -0,0 +1,117 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SolutionIteratorTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+
+  /**
+   * Test method for {@link solver.SolutionIterator#next()}.
+   */
+  @Test
+  public void testNext() {
+    // Same solutions in the same order as findSolutions
+    ArrayList<Puzzle> expected = BruteForceSolver.findSolutions(multiLarge.createCopy());
+    ArrayList<Puzzle> found = new ArrayList<Puzzle>();
+    for (Puzzle solution : new SolutionIterator(multiLarge)) {
+      found.add(solution);
+    }
+    assertEquals(expected, found);
+    // The given board is not changed
+    assertTrue(Arrays.equals(multiLarge.getBoard(), new int[16]));
+
+    SolutionIterator it = BruteForceSolver.solutions(multi2x2, 1);
+    assertTrue(it.hasNext());
+    assertTrue(it.hasNext());
+    assertTrue(Arrays.equals(it.next().getBoard(), new int[] {1,2,2,1}));
+    assertFalse(it.hasNext());
+    try {
+      it.next();
+      fail();
+    } catch (NoSuchElementException e) {
+      // No solutions past the limit
+    }
+
+    assertFalse(new SolutionIterator(null).hasNext());
+  }
+
+  /**
+   * Test method for {@link solver.SolutionIterator#limit(long)}.
+   */
+  @Test
+  public void testLimit() {
+    SolutionIterator it = new SolutionIterator(multiLarge).limit(3);
+    int count = 0;
+    while (it.hasNext()) {
+      assertTrue(PuzzleVerifier.matchesFull(it.next()));
+      count++;
+    }
+    assertEquals(3, count);
+    assertEquals(2, HybridSolver.solutions(multiLarge, 2).stream().count());
+    assertEquals(1, HybridSolver.solutions(small, 2).stream().count());
+  }
+
+  /**
+   * Test that a {@link solver.SolutionIterator} can only be iterated once, and its limit only set
+   * before iterating.
+   */
+  @Test
+  public void testSingleUse() {
+    SolutionIterator solutions = new SolutionIterator(multiLarge);
+    int count = 0;
+    for (Puzzle solution : solutions) {
+      assertTrue(PuzzleVerifier.matchesFull(solution));
+      count++;
+    }
+    assertEquals(8, count);
+    try {
+      for (Puzzle solution : solutions) {
+        fail("Iterated again over " + solution);
+      }
+      fail("Iterated twice");
+    } catch (IllegalStateException e) { }
+    try {
+      solutions.stream();
+      fail("Streamed after iterating");
+    } catch (IllegalStateException e) { }
+
+    // A solution already found can't be dropped by a lower limit
+    SolutionIterator it = new SolutionIterator(multiLarge);
+    assertTrue(it.hasNext());
+    try {
+      it.limit(0);
+      fail("Limited after iteration started");
+    } catch (IllegalStateException e) { }
+    assertTrue(it.next() != null);
+  }
+
+  /**
+   * Test method for {@link solver.SolutionIterator#stream()}.
+   */
+  @Test
+  public void testStream() {
+    assertEquals(BruteForceSolver.findSolutions(multiLarge.createCopy()),
+        BruteForceSolver.solutionStream(multiLarge).collect(Collectors.toList()));
+    assertEquals(8, HybridSolver.solutionStream(multiLarge).count());
+    assertEquals(5, BruteForceSolver.solutionStream(multiLarge).limit(5).count());
+  }
+}
@@ -0,0 +1,137 @@
+package solver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits on a single solve: a wall clock deadline, a budget of search nodes, a deepest guess and a
+ * token to cancel it, along with a transposition table the search may share with others. Every
+ * limit is off until set. Setters return the options so they can be chained. The search checks
+ * every limit between guesses, and propagation and probing check the deadline and token between
+ * lines and probes.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SolveOptions {
+
+  // Deadline as a System.nanoTime value, only used if hasDeadline is set
+  long deadline = 0;
+  boolean hasDeadline = false;
+  long nodeBudget = Long.MAX_VALUE;
+  int maxDepth = Integer.MAX_VALUE;
+  CancellationToken token = null;
+  TranspositionTable table = null;
+
+  /**
+   * Stops the search once the given time has passed, counted from now
+   * 
+   * @param time time allowed
+   * @param unit unit of time
+   * @return these options
+   */
+  public SolveOptions timeout(long time, TimeUnit unit) {
+    return deadline(System.nanoTime() + unit.toNanos(time));
+  }
+
+  /**
+   * Stops the search once System.nanoTime passes the given value
+   * 
+   * @param nanoTime deadline in the same terms as System.nanoTime
+   * @return these options
+   */
+  public SolveOptions deadline(long nanoTime) {
+    deadline = nanoTime;
+    hasDeadline = true;
+    return this;
+  }
+
+  /**
+   * Stops the search after the given number of guesses
+   * 
+   * @param nodes most search nodes to visit
+   * @return these options
+   */
+  public SolveOptions nodeBudget(long nodes) {
+    if (nodes < 0)
+      throw new IllegalArgumentException("Node budget cannot be negative");
+    nodeBudget = nodes;
+    return this;
+  }
+
+  /**
+   * Stops the search from guessing more than the given number of squares at once. Branches that
+   * would need to guess deeper are skipped, not searched.
+   * 
+   * @param depth most guesses on the stack at once
+   * @return these options
+   */
+  public SolveOptions maxDepth(int depth) {
+    if (depth < 0)
+      throw new IllegalArgumentException("Max depth cannot be negative");
+    maxDepth = depth;
+    return this;
+  }
+
+  /**
+   * Stops the search once the given token is cancelled
+   * 
+   * @param token token to check, or null to not check
+   * @return these options
+   */
+  public SolveOptions cancellation(CancellationToken token) {
+    this.token = token;
+    return this;
+  }
+
+  /**
+   * Skips board states the given table knows have no solutions, and records states found to have
+   * none. Within one search every state is reached at most once, so the table pays off when it is
+   * shared by searches guessing in different orders, or by repeated searches of the same puzzle.
+   * 
+   * @param table table to share, or null to not use one
+   * @return these options
+   */
+  public SolveOptions transpositions(TranspositionTable table) {
+    this.table = table;
+    return this;
+  }
+
+  /**
+   * Copies these options, so a copy can be given a different token or depth
+   * 
+   * @return new options with the same limits
+   */
+  SolveOptions copy() {
+    SolveOptions ret = new SolveOptions();
+    ret.deadline = deadline;
+    ret.hasDeadline = hasDeadline;
+    ret.nodeBudget = nodeBudget;
+    ret.maxDepth = maxDepth;
+    ret.token = token;
+    ret.table = table;
+    return ret;
+  }
+
+  /**
+   * Determines if the deadline has passed
+   * 
+   * @return true if there is a deadline and it has passed
+   */
+  boolean pastDeadline() {
+    return hasDeadline && System.nanoTime() - deadline >= 0;
+  }
+
+  /**
+   * Determines if work done under these options should stop, not counting the node budget or the
+   * max depth, which only the search knows about
+   * 
+   * @return CANCELLED if the token is cancelled, TIMEOUT if the deadline has passed, null otherwise
+   */
+  SolveResult.Status stopStatus() {
+    if (token != null && token.isCancelled())
+      return SolveResult.Status.CANCELLED;
+    if (pastDeadline())
+      return SolveResult.Status.TIMEOUT;
+    return null;
+  }
+}
@@ -0,0 +1,148 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SolveOptionsTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+
+  /**
+   * Counts the squares of a board that are filled in or crossed out
+   */
+  private static int known(Puzzle p) {
+    int ret = 0;
+    for (int pos = 0; pos < p.rows * p.cols; pos++) {
+      if (p.getSquare(pos) != 0)
+        ret++;
+    }
+    return ret;
+  }
+
+  /**
+   * Test method for {@link solver.HybridSolver#solve(Puzzle, SolveOptions)} and
+   * {@link solver.BruteForceSolver#solve(Puzzle, SolveOptions)}.
+   */
+  @Test
+  public void testNoLimits() {
+    SolveResult result = BruteForceSolver.solve(small, new SolveOptions());
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+    assertTrue(result.isSolved());
+    assertSame(small, result.board);
+    assertTrue(PuzzleVerifier.matchesFull(small));
+    assertTrue(result.stats.nodes() >= 25);
+
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    result = HybridSolver.solve(multi2x2, new SolveOptions());
+    assertEquals(SolveResult.Status.NO_SOLUTION, result.status);
+    assertTrue(known(result.board) == 2);
+    assertEquals(SolveResult.Status.NO_SOLUTION,
+        HybridSolver.solve(null, new SolveOptions()).status);
+    assertNull(BruteForceSolver.solve(null, new SolveOptions()).board);
+  }
+
+  /**
+   * Test method for {@link solver.SolveOptions#nodeBudget(long)}.
+   */
+  @Test
+  public void testNodeBudget() {
+    SolveResult result = BruteForceSolver.solve(small, new SolveOptions().nodeBudget(10));
+    assertEquals(SolveResult.Status.TIMEOUT, result.status);
+    assertTrue(result.stats.nodes() >= 10);
+    // The puzzle is restored, and the partial board holds the deepest guesses
+    assertTrue(known(small) == 0);
+    assertTrue(known(result.board) > 0 && known(result.board) < 25);
+    assertTrue(result.board != small);
+  }
+
+  /**
+   * Test method for {@link solver.SolveOptions#timeout(long, TimeUnit)}.
+   */
+  @Test
+  public void testTimeout() {
+    SolveResult result =
+        BruteForceSolver.solve(small, new SolveOptions().timeout(0, TimeUnit.SECONDS));
+    assertEquals(SolveResult.Status.TIMEOUT, result.status);
+    assertTrue(result.stats.nodes() == 0);
+    assertTrue(known(small) == 0);
+
+    result = BruteForceSolver.solve(small, new SolveOptions().timeout(1, TimeUnit.HOURS));
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+
+    // Propagation alone would solve the small puzzle, but it checks the deadline too
+    small.setBoard(new int[25]);
+    result = HybridSolver.solve(small, new SolveOptions().timeout(0, TimeUnit.SECONDS));
+    assertEquals(SolveResult.Status.TIMEOUT, result.status);
+    assertTrue(known(small) == 0);
+  }
+
+  /**
+   * Test method for {@link solver.SolveOptions#cancellation(CancellationToken)}.
+   */
+  @Test
+  public void testCancellation() {
+    CancellationToken token = new CancellationToken();
+    assertTrue(!token.isCancelled());
+    token.cancel();
+    assertTrue(token.isCancelled());
+    SolveResult result = BruteForceSolver.solve(small, new SolveOptions().cancellation(token));
+    assertEquals(SolveResult.Status.CANCELLED, result.status);
+    assertTrue(known(small) == 0);
+    result = HybridSolver.solve(small, new SolveOptions().cancellation(token));
+    assertEquals(SolveResult.Status.CANCELLED, result.status);
+    assertTrue(known(small) == 0);
+  }
+
+  /**
+   * Test method for the order {@link solver.SearchEngine} checks the limits of
+   * {@link solver.SolveOptions} in.
+   */
+  @Test
+  public void testCheckOrder() {
+    CancellationToken token = new CancellationToken();
+    token.cancel();
+    // Cancelling comes before everything else
+    assertEquals(SolveResult.Status.CANCELLED, BruteForceSolver.solve(small,
+        new SolveOptions().cancellation(token).maxDepth(0).nodeBudget(0)).status);
+    // Skipping a branch at the max depth comes before the node budget and deadline
+    assertEquals(SolveResult.Status.DEPTH_LIMIT,
+        BruteForceSolver.solve(small, new SolveOptions().maxDepth(0).nodeBudget(0)).status);
+    assertEquals(SolveResult.Status.DEPTH_LIMIT, BruteForceSolver.solve(small,
+        new SolveOptions().maxDepth(0).timeout(0, TimeUnit.SECONDS)).status);
+    assertEquals(SolveResult.Status.TIMEOUT, BruteForceSolver.solve(small,
+        new SolveOptions().maxDepth(1).nodeBudget(0)).status);
+  }
+
+  /**
+   * Test method for {@link solver.SolveOptions#maxDepth(int)}.
+   */
+  @Test
+  public void testMaxDepth() {
+    // Brute force has to guess every square
+    SolveResult result = BruteForceSolver.solve(small, new SolveOptions().maxDepth(24));
+    assertEquals(SolveResult.Status.DEPTH_LIMIT, result.status);
+    assertTrue(result.stats.maxDepth() <= 24);
+    assertTrue(known(result.board) == 24);
+    result = BruteForceSolver.solve(small, new SolveOptions().maxDepth(25));
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+
+    // Deduction alone solves the small puzzle without guessing
+    small.setBoard(new int[25]);
+    result = HybridSolver.solve(small, new SolveOptions().maxDepth(0));
+    assertEquals(SolveResult.Status.SOLVED, result.status);
+    assertTrue(result.stats.nodes() == 0);
+  }
+}
@@ -0,0 +1,77 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Outcome of a solve run under SolveOptions. When a limit stops the search early, the board that
+ * had the most squares known is kept so callers still get partial progress.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SolveResult {
+
+  /**
+   * How a limited solve ended
+   */
+  public enum Status {
+    // A solution was found
+    SOLVED,
+    // The whole search ran and there is no solution
+    NO_SOLUTION,
+    // The deadline passed or the node budget was spent
+    TIMEOUT,
+    // The cancellation token was cancelled
+    CANCELLED,
+    // No solution was found, but branches deeper than the max depth were skipped
+    DEPTH_LIMIT
+  }
+
+  public final Status status;
+  // The solution for SOLVED. Otherwise a copy of the puzzle holding the board with the most squares
+  // known, which may include guesses that turn out to be wrong, or the unchanged board for
+  // NO_SOLUTION.
+  public final Puzzle board;
+  // Work done by the solve
+  public final SolveStats stats;
+
+  SolveResult(Status status, Puzzle board, SolveStats stats) {
+    this.status = status;
+    this.board = board;
+    this.stats = stats;
+  }
+
+  /**
+   * Determines if a solution was found
+   * 
+   * @return true for SOLVED
+   */
+  public boolean isSolved() {
+    return status == Status.SOLVED;
+  }
+
+  /**
+   * Builds the result of running a search once
+   * 
+   * @param p puzzle searched, holding the solution if one was found
+   * @param search search that was run
+   * @param found whether the search found a solution
+   * @param stats stats counted by the search
+   * @return result of the search
+   */
+  static SolveResult of(Puzzle p, SearchEngine search, boolean found, SolveStats stats) {
+    if (found)
+      return new SolveResult(Status.SOLVED, p, stats);
+    Status status = search.stopStatus();
+    if (status == null)
+      status = search.skippedBranches() ? Status.DEPTH_LIMIT : Status.NO_SOLUTION;
+    Puzzle board = p.createCopy();
+    int[] best = search.bestBoard();
+    if (best != null && status != Status.NO_SOLUTION) {
+      for (int pos = 0; pos < best.length; pos++) {
+        board.setBoard(best[pos], pos);
+      }
+    }
+    return new SolveResult(status, board, stats);
+  }
+}
@@ -0,0 +1,131 @@
+package solver;
+
+/**
+ * Counters and phase times collected during one solve. Pass an instance to a solver to have it
+ * filled in. Counting is done on the solving thread without locking, so an instance should only be
+ * used by one solve at a time; stats from separate solves can be combined with add. Line solves
+ * and search branches are also recorded as flight recorder events; solvers check an event type is
+ * enabled before creating one, so nothing is allocated unless a recording wants it.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SolveStats {
+
+  long nodes = 0;
+  long backtracks = 0;
+  long propagations = 0;
+  long lineSolves = 0;
+  long cacheHits = 0;
+  int maxDepth = 0;
+  long propagationNanos = 0;
+  long searchNanos = 0;
+  long probeNanos = 0;
+
+  /**
+   * Gets the number of search nodes, each a guess of one value for a square
+   * 
+   * @return nodes visited
+   */
+  public long nodes() {
+    return nodes;
+  }
+
+  /**
+   * Gets the number of times search undid a guess to try something else
+   * 
+   * @return backtracks
+   */
+  public long backtracks() {
+    return backtracks;
+  }
+
+  /**
+   * Gets the number of times propagation was run to a fixed point
+   * 
+   * @return propagation rounds
+   */
+  public long propagations() {
+    return propagations;
+  }
+
+  /**
+   * Gets the number of rows and columns solved, including those answered by a cache
+   * 
+   * @return line solves
+   */
+  public long lineSolves() {
+    return lineSolves;
+  }
+
+  /**
+   * Gets the number of line solves answered by a cache
+   * 
+   * @return cache hits
+   */
+  public long cacheHits() {
+    return cacheHits;
+  }
+
+  /**
+   * Gets the most guesses search had made at once
+   * 
+   * @return maximum depth
+   */
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Gets the time spent propagating, including propagation during search
+   * 
+   * @return nanoseconds propagating
+   */
+  public long propagationNanos() {
+    return propagationNanos;
+  }
+
+  /**
+   * Gets the time spent searching, including propagation during search
+   * 
+   * @return nanoseconds searching
+   */
+  public long searchNanos() {
+    return searchNanos;
+  }
+
+  /**
+   * Gets the time spent probing
+   * 
+   * @return nanoseconds probing
+   */
+  public long probeNanos() {
+    return probeNanos;
+  }
+
+  /**
+   * Adds the counts and times of another solve to these
+   * 
+   * @param other stats of another solve
+   */
+  public void add(SolveStats other) {
+    nodes += other.nodes;
+    backtracks += other.backtracks;
+    propagations += other.propagations;
+    lineSolves += other.lineSolves;
+    cacheHits += other.cacheHits;
+    maxDepth = Math.max(maxDepth, other.maxDepth);
+    propagationNanos += other.propagationNanos;
+    searchNanos += other.searchNanos;
+    probeNanos += other.probeNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "nodes=%d backtracks=%d propagations=%d lineSolves=%d cacheHits=%d maxDepth=%d"
+            + " propagation=%.3fms search=%.3fms probe=%.3fms",
+        nodes, backtracks, propagations, lineSolves, cacheHits, maxDepth, propagationNanos / 1e6,
+        searchNanos / 1e6, probeNanos / 1e6);
+  }
+}
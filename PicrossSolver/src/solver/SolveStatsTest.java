@@ -0,0 +1,115 @@
+package solver;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SolveStatsTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+
+  /**
+   * Test method for
+   * {@link solver.HybridSolver#findSolution(Puzzle, BranchingStrategy, LineCache, SolveStats)}.
+   */
+  @Test
+  public void testHybridStats() {
+    SolveStats stats = new SolveStats();
+    HybridSolver.findSolution(multiLarge, new FirstBlankStrategy(), new LineCache(64), stats);
+    assertTrue(stats.nodes() > 0);
+    assertTrue(stats.maxDepth() > 0 && stats.maxDepth() <= stats.nodes());
+    // Root propagation, then one per guess
+    assertTrue(stats.propagations() == stats.nodes() + 1);
+    assertTrue(stats.lineSolves() >= 8);
+    assertTrue(stats.cacheHits() <= stats.lineSolves());
+    assertTrue(stats.searchNanos() >= stats.propagationNanos());
+    assertTrue(stats.probeNanos() == 0);
+
+    // Deduction alone solves the small puzzle
+    stats = new SolveStats();
+    HybridSolver.findSolution(small, new FirstBlankStrategy(), null, stats);
+    assertTrue(stats.nodes() == 0 && stats.backtracks() == 0);
+    assertTrue(stats.propagations() == 1);
+    assertTrue(stats.cacheHits() == 0);
+  }
+
+  /**
+   * Test method for
+   * {@link solver.BruteForceSolver#findSolution(Puzzle, BranchingStrategy, SolveStats)} and
+   * {@link solver.SolveStats#add(SolveStats)}.
+   */
+  @Test
+  public void testBruteForceStats() {
+    SolveStats stats = new SolveStats();
+    BruteForceSolver.findSolution(small, new FirstBlankStrategy(), stats);
+    // Every square is guessed
+    assertTrue(stats.maxDepth() == 25);
+    assertTrue(stats.nodes() >= 25);
+    assertTrue(stats.backtracks() > 0);
+    assertTrue(stats.propagations() == 0 && stats.lineSolves() == 0);
+
+    SolveStats total = new SolveStats();
+    total.add(stats);
+    total.add(stats);
+    assertTrue(total.nodes() == 2 * stats.nodes());
+    assertTrue(total.maxDepth() == 25);
+
+    // Propagation stalls on this puzzle, so probing has work to do
+    Puzzle probe = FileHandler.getFilePuzzle("testPuzzles/probe7x5.txt");
+    stats = new SolveStats();
+    DeductiveSolver.findSolution(probe, null, 1, stats);
+    // One full propagation, then two per square probed, and more once deductions are applied
+    assertTrue(stats.propagations() > 1 && stats.nodes() == 0);
+    assertTrue(stats.lineSolves() > probe.rows + probe.cols);
+    assertTrue(stats.probeNanos() > 0);
+    assertTrue(PuzzleVerifier.matchesFull(probe));
+  }
+
+  /**
+   * Test that line solves and branches are recorded as flight recorder events.
+   * @throws IOException throws if the recording can't be written
+   */
+  @Test
+  public void testEvents() throws IOException {
+    Path file = Files.createTempFile("solve", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("picross.LineSolve");
+      recording.enable("picross.Branch");
+      recording.start();
+      HybridSolver.findSolution(multiLarge);
+      recording.stop();
+      recording.dump(file);
+
+      int lineSolves = 0;
+      int branches = 0;
+      for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+        String name = event.getEventType().getName();
+        if (name.equals("picross.LineSolve")) {
+          lineSolves++;
+          assertTrue(event.getInt("length") == 4);
+        } else if (name.equals("picross.Branch")) {
+          branches++;
+          assertTrue(event.getInt("depth") > 0);
+        }
+      }
+      assertTrue(lineSolves > 0);
+      assertTrue(branches > 0);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * A configured way of solving puzzles that stops at the limits it is given. Implementations work on
+ * a copy of the puzzle and create their working state for each solve, so one instance can solve
+ * on several threads at once.
+ * 
+ * @author coatrain
+ * 
+ */
+public interface Solver {
+
+  /**
+   * Gets a short name describing how this solver is configured
+   * 
+   * @return name of the solver
+   */
+  public String name();
+
+  /**
+   * Solves a given puzzle, stopping at the limits in the given options
+   * 
+   * @param p given puzzle, its board is not changed
+   * @param options deadline, node budget, max depth and cancellation token for the solve, or null
+   *        to solve without limits
+   * @return SOLVED with a solved copy of the puzzle, NO_SOLUTION, or why the solve stopped along
+   *         with the most complete board it reached
+   */
+  public SolveResult solve(Puzzle p, SolveOptions options);
+}
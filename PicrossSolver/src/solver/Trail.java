@@ -0,0 +1,69 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Records squares guessed or deduced during search so they can be undone when backtracking,
+ * instead of copying the board at every branch. Squares are assumed to be unsure before they are
+ * assigned, so undoing an assignment sets the square back to 0.
+ * 
+ * @author coatrain
+ * 
+ */
+public class Trail {
+
+  private final int[] positions;
+  private int size = 0;
+
+  /**
+   * Creates an empty trail for a board with the given number of squares
+   * 
+   * @param squares number of squares on the board
+   */
+  public Trail(int squares) {
+    positions = new int[squares];
+  }
+
+  /**
+   * Sets an unsure square on the board and records it
+   * 
+   * @param p given puzzle
+   * @param val value to set the square to
+   * @param pos position of the square
+   */
+  public void assign(Puzzle p, int val, int pos) {
+    positions[size++] = pos;
+    p.setBoard(val, pos);
+  }
+
+  /**
+   * Gets a mark that the trail can be undone back to
+   * 
+   * @return the number of assignments currently recorded
+   */
+  public int mark() {
+    return size;
+  }
+
+  /**
+   * Gets the position of a recorded assignment
+   * 
+   * @param index index of the assignment, from 0 up to mark() - 1
+   * @return position of the square assigned
+   */
+  public int position(int index) {
+    return positions[index];
+  }
+
+  /**
+   * Undoes assignments, most recent first, until the trail is back at the given mark
+   * 
+   * @param p given puzzle
+   * @param mark mark from an earlier call to mark()
+   */
+  public void undo(Puzzle p, int mark) {
+    while (size > mark) {
+      p.setBoard(0, positions[--size]);
+    }
+  }
+}
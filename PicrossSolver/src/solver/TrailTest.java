@@ -0,0 +1,39 @@
+package solver;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class TrailTest {
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+
+  /**
+   * Test method for {@link solver.Trail#undo(puzzle.Puzzle, int)}.
+   */
+  @Test
+  public void testUndo() {
+    Trail trail = new Trail(4);
+    assertTrue(trail.mark() == 0);
+    trail.assign(multi2x2, 1, 0);
+    int mark = trail.mark();
+    assertTrue(mark == 1);
+    trail.assign(multi2x2, 2, 1);
+    trail.assign(multi2x2, 2, 2);
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,2,2,0}));
+
+    trail.undo(multi2x2, mark);
+    assertTrue(trail.mark() == mark);
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[] {1,0,0,0}));
+    trail.undo(multi2x2, 0);
+    assertTrue(Arrays.equals(multi2x2.getBoard(), new int[4]));
+  }
+}
@@ -0,0 +1,133 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Bounded table of board states known to have no solutions below them. Each state is keyed by the
+ * board's Zobrist hash mixed with its clues, and stored in a fixed slot picked by the key, so a new
+ * state replaces whatever was there before. The slots are split into stripes, each with its own
+ * lock, so searches on different threads can share a table without waiting on each other much.
+ * Keys are 64 bit hashes, not whole boards, so two states colliding could in theory prune a state
+ * that does have solutions.
+ *
+ * @author coatrain
+ *
+ */
+public class TranspositionTable {
+
+  private static final int stripes = 16;
+
+  private final long[][] slots;
+  private final Object[] locks;
+  private final int slotMask;
+  private final long[] hits;
+  private final long[] misses;
+
+  /**
+   * Creates an empty table
+   * 
+   * @param capacity most states to keep, rounded up to a power of two of at least one per stripe
+   */
+  public TranspositionTable(int capacity) {
+    int perStripe = 1;
+    while (perStripe * stripes < capacity) {
+      perStripe <<= 1;
+    }
+    slots = new long[stripes][perStripe];
+    locks = new Object[stripes];
+    for (int i = 0; i < stripes; i++) {
+      locks[i] = new Object();
+    }
+    slotMask = perStripe - 1;
+    hits = new long[stripes];
+    misses = new long[stripes];
+  }
+
+  /**
+   * Records that the puzzle's current board has no solutions below it
+   * 
+   * @param p given puzzle
+   */
+  public void markFailed(Puzzle p) {
+    long key = key(p);
+    int stripe = (int) key & (stripes - 1);
+    synchronized (locks[stripe]) {
+      slots[stripe][slot(key)] = key;
+    }
+  }
+
+  /**
+   * Determines if the puzzle's current board is known to have no solutions below it
+   * 
+   * @param p given puzzle
+   * @return true if the board was marked failed and hasn't been replaced since
+   */
+  public boolean isFailed(Puzzle p) {
+    long key = key(p);
+    int stripe = (int) key & (stripes - 1);
+    synchronized (locks[stripe]) {
+      boolean found = slots[stripe][slot(key)] == key;
+      if (found)
+        hits[stripe]++;
+      else
+        misses[stripe]++;
+      return found;
+    }
+  }
+
+  /**
+   * Gets the number of lookups that found a failed state
+   * 
+   * @return number of hits
+   */
+  public long hits() {
+    return total(hits);
+  }
+
+  /**
+   * Gets the number of lookups that didn't find a failed state
+   * 
+   * @return number of misses
+   */
+  public long misses() {
+    return total(misses);
+  }
+
+  /**
+   * Gets the most states the table can hold
+   * 
+   * @return number of slots
+   */
+  public int capacity() {
+    return stripes * (slotMask + 1);
+  }
+
+  /**
+   * Sums a counter over every stripe
+   */
+  private long total(long[] counts) {
+    long ret = 0;
+    for (int i = 0; i < stripes; i++) {
+      synchronized (locks[i]) {
+        ret += counts[i];
+      }
+    }
+    return ret;
+  }
+
+  /**
+   * Picks the slot within a stripe for a key, using bits the stripe wasn't picked with
+   */
+  private int slot(long key) {
+    return (int) (key >>> 32) & slotMask;
+  }
+
+  /**
+   * Mixes the board's hash with its clues, so puzzles with different numbers don't share states.
+   * 0 marks an empty slot, so it is never used as a key.
+   */
+  private static long key(Puzzle p) {
+    long key = p.zobristHash() ^ p.clues.hashCode() * 0x9E3779B97F4A7C15L;
+    return key == 0 ? 1 : key;
+  }
+}
@@ -0,0 +1,71 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class TranspositionTableTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+
+  /**
+   * Test method for {@link solver.TranspositionTable#markFailed(Puzzle)} and
+   * {@link solver.TranspositionTable#isFailed(Puzzle)}.
+   */
+  @Test
+  public void testMarkFailed() {
+    TranspositionTable table = new TranspositionTable(100);
+    assertTrue(table.capacity() == 128);
+    assertTrue(new TranspositionTable(0).capacity() == 16);
+    assertFalse(table.isFailed(small));
+    table.markFailed(small);
+    assertTrue(table.isFailed(small));
+    assertTrue(table.isFailed(small.createCopy(true)));
+    // Same board with different numbers is a different state
+    assertFalse(table.isFailed(Puzzle.boardToPuzzle(new int[25], 5, 5)));
+    small.setBoard(1, 0);
+    assertFalse(table.isFailed(small));
+    small.setBoard(0, 0);
+    assertTrue(table.isFailed(small));
+    assertTrue(table.hits() == 3);
+    assertTrue(table.misses() == 3);
+  }
+
+  /**
+   * Test method for {@link solver.SearchEngine#nextSolution()} sharing a table between searches.
+   */
+  @Test
+  public void testSharedSearch() {
+    // A wrong guess leaves no solutions, so the first search records the state it started from
+    small.setBoard(1, 11);
+    TranspositionTable table = new TranspositionTable(64);
+    SolveOptions options = new SolveOptions().transpositions(table);
+    SolveResult result = BruteForceSolver.solve(small, new FirstBlankStrategy(), options);
+    assertEquals(SolveResult.Status.NO_SOLUTION, result.status);
+    assertTrue(result.stats.nodes() > 0);
+    // A search with another strategy finds it without guessing
+    result = BruteForceSolver.solve(small, new FailFirstStrategy(), options);
+    assertEquals(SolveResult.Status.NO_SOLUTION, result.status);
+    assertTrue(result.stats.nodes() == 0);
+
+    // Boards with solutions below them are never recorded, so every solution is still found
+    table = new TranspositionTable(64);
+    for (int i = 0; i < 3; i++) {
+      SearchEngine search = new SearchEngine(multiLarge, new LeastSlackStrategy(multiLarge),
+          new Propagator(multiLarge), null, new SolveOptions().transpositions(table));
+      int solutions = 0;
+      while (search.nextSolution())
+        solutions++;
+      assertTrue(solutions == 8);
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package solver;
+
+import puzzle.Puzzle;
+
+/**
+ * Checks whether a puzzle has exactly one solution, stopping as soon as a second is found. One
+ * search propagates and guesses until it finds a solution, then carries on from where it left off
+ * to look for another, so the root is only propagated once and no part of the tree is searched
+ * twice. Given options, the check can be cut short by a node budget or deadline, and then says it
+ * doesn't know.
+ * 
+ * @author coatrain
+ * 
+ */
+public class UniquenessChecker {
+
+  /**
+   * How many solutions a puzzle has
+   */
+  public enum Status {
+    UNIQUE, MULTIPLE, NONE, UNKNOWN
+  }
+
+  /**
+   * Outcome of a check, with the solutions found as witnesses
+   */
+  public static class Result {
+    public final Status status;
+    // The solution for UNIQUE, one of two for MULTIPLE, any solution found for UNKNOWN, null for
+    // NONE
+    public final Puzzle first;
+    // A different solution for MULTIPLE, null otherwise
+    public final Puzzle second;
+
+    Result(Status status, Puzzle first, Puzzle second) {
+      this.status = status;
+      this.first = first;
+      this.second = second;
+    }
+  }
+
+  /**
+   * Checks how many solutions a puzzle has
+   * 
+   * @param p given puzzle, its board is not changed
+   * @return NONE if there are no solutions, UNIQUE with the solution, or MULTIPLE with two
+   *         different solutions
+   */
+  public static Result check(Puzzle p) {
+    return check(p, new LineCache(DeductiveSolver.defaultCacheSize));
+  }
+
+  /**
+   * Checks how many solutions a puzzle has
+   * 
+   * @param p given puzzle, its board is not changed
+   * @param cache cache of solved lines, may be shared between checks
+   * @return NONE if there are no solutions, UNIQUE with the solution, or MULTIPLE with two
+   *         different solutions
+   */
+  public static Result check(Puzzle p, LineCache cache) {
+    return check(p, cache, null);
+  }
+
+  /**
+   * Checks how many solutions a puzzle has, stopping at the limits in the given options. The node
+   * budget covers the search for both solutions.
+   * 
+   * @param p given puzzle, its board is not changed
+   * @param cache cache of solved lines, may be shared between checks
+   * @param options limits to stop the check at, or null to check until finished
+   * @return NONE if there are no solutions, UNIQUE with the solution, MULTIPLE with two different
+   *         solutions, or UNKNOWN with any solution found if a limit stopped the check first
+   */
+  public static Result check(Puzzle p, LineCache cache, SolveOptions options) {
+    if (p == null)
+      return new Result(Status.NONE, null, null);
+    Puzzle board = p.createCopy();
+    SearchEngine search = new SearchEngine(board, new FirstBlankStrategy(),
+        new Propagator(board, cache, null, options), null, options);
+    if (!search.nextSolution())
+      return new Result(stopped(search) ? Status.UNKNOWN : Status.NONE, null, null);
+    Puzzle first = board.createCopy();
+
+    // Continue the same search past the first solution
+    if (search.nextSolution())
+      return new Result(Status.MULTIPLE, first, board.createCopy());
+    return new Result(stopped(search) ? Status.UNKNOWN : Status.UNIQUE, first, null);
+  }
+
+  /**
+   * Determines if a search that found nothing more was cut short, so there may be solutions left
+   */
+  private static boolean stopped(SearchEngine search) {
+    return search.stopStatus() != null || search.skippedBranches();
+  }
+
+  /**
+   * Checks if a puzzle has exactly one solution
+   * 
+   * @param p given puzzle, its board is not changed
+   * @return true if the puzzle has one solution, false if it has none or more than one
+   */
+  public static boolean isUnique(Puzzle p) {
+    return check(p).status == Status.UNIQUE;
+  }
+}
@@ -0,0 +1,80 @@
+package solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import ui.FileHandler;
+
+/**
+ * @author coatrain
+ *
+ */
+public class UniquenessCheckerTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  Puzzle probe = FileHandler.getFilePuzzle("testPuzzles/probe7x5.txt");
+  Puzzle multi2x2 = FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt");
+  Puzzle multiLarge = FileHandler.getFilePuzzle("testPuzzles/multiLarge.txt");
+
+  /**
+   * Test method for {@link solver.UniquenessChecker#check(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testCheck() {
+    UniquenessChecker.Result result = UniquenessChecker.check(small);
+    assertEquals(UniquenessChecker.Status.UNIQUE, result.status);
+    assertTrue(PuzzleVerifier.matchesFull(result.first));
+    assertNull(result.second);
+    assertTrue(Arrays.equals(small.getBoard(), new int[25]));
+    assertEquals(UniquenessChecker.Status.UNIQUE, UniquenessChecker.check(probe).status);
+
+    // Two different witnesses
+    result = UniquenessChecker.check(multiLarge);
+    assertEquals(UniquenessChecker.Status.MULTIPLE, result.status);
+    assertTrue(PuzzleVerifier.matchesFull(result.first));
+    assertTrue(PuzzleVerifier.matchesFull(result.second));
+    assertFalse(result.first.equals(result.second));
+
+    // Guessed squares can rule out every solution but one, or all of them
+    multi2x2.setBoard(new int[] {0,1,0,0});
+    assertEquals(UniquenessChecker.Status.UNIQUE, UniquenessChecker.check(multi2x2).status);
+    multi2x2.setBoard(new int[] {1,1,0,0});
+    result = UniquenessChecker.check(multi2x2);
+    assertEquals(UniquenessChecker.Status.NONE, result.status);
+    assertNull(result.first);
+    assertEquals(UniquenessChecker.Status.NONE, UniquenessChecker.check(null).status);
+  }
+
+  /**
+   * Test method for
+   * {@link solver.UniquenessChecker#check(puzzle.Puzzle, solver.LineCache, solver.SolveOptions)}.
+   */
+  @Test
+  public void testCheckBudget() {
+    SolveOptions noGuesses = new SolveOptions().nodeBudget(0);
+    // Propagation alone proves the small puzzle unique
+    assertEquals(UniquenessChecker.Status.UNIQUE,
+        UniquenessChecker.check(small, null, noGuesses).status);
+    // Without guessing nothing is known about puzzles with several solutions
+    UniquenessChecker.Result result = UniquenessChecker.check(multiLarge, null, noGuesses);
+    assertEquals(UniquenessChecker.Status.UNKNOWN, result.status);
+    assertEquals(UniquenessChecker.Status.MULTIPLE,
+        UniquenessChecker.check(multiLarge, null, new SolveOptions().nodeBudget(100)).status);
+  }
+
+  /**
+   * Test method for {@link solver.UniquenessChecker#isUnique(puzzle.Puzzle)}.
+   */
+  @Test
+  public void testIsUnique() {
+    assertTrue(UniquenessChecker.isUnique(small));
+    assertFalse(UniquenessChecker.isUnique(multi2x2));
+    assertFalse(UniquenessChecker.isUnique(multiLarge));
+  }
+}
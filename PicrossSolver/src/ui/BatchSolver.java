@@ -0,0 +1,300 @@
+package ui;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import puzzle.Puzzle;
+import solver.HybridSolver;
+import solver.SolveOptions;
+import solver.SolveResult;
+
+/**
+ * Solves every puzzle in a directory, or every file matching a glob, on a pool of worker threads.
+ * Each solution is written next to the others in an output directory, named after its puzzle file
+ * with .solution.txt in place of .txt. Prints how many puzzles were solved per second, solve
+ * latency percentiles, and any puzzles that failed along with why. Each puzzle gets a time limit,
+ * and puzzles that run out of time are counted as failures.
+ * 
+ * Usage: BatchSolver input [outputDirectory] [threads] [timeoutSeconds], where input is a
+ * directory or a glob such as testPuzzles/multi*.txt
+ * 
+ * @author coatrain
+ * 
+ */
+public class BatchSolver {
+
+  public static final String defaultOutputLocation = "solutions";
+  // Seconds each puzzle may take when no timeout is given
+  public static final long defaultTimeoutSeconds = 60;
+
+  private static final String usage =
+      "Usage: BatchSolver input [outputDirectory] [threads] [timeoutSeconds]";
+
+  public static void main(String[] args) {
+    if (args.length < 1) {
+      System.err.println(usage);
+      return;
+    }
+    Path output = Paths.get(args.length > 1 ? args[1] : defaultOutputLocation);
+    int threads;
+    long timeoutSeconds;
+    try {
+      threads = args.length > 2 ? Integer.parseInt(args[2])
+          : Runtime.getRuntime().availableProcessors();
+      timeoutSeconds = args.length > 3 ? Long.parseLong(args[3]) : defaultTimeoutSeconds;
+    } catch (NumberFormatException e) {
+      System.err.println(usage);
+      return;
+    }
+    if (threads < 1 || timeoutSeconds < 1) {
+      System.err.println(usage);
+      return;
+    }
+    try {
+      List<Path> files = findFiles(args[0]);
+      if (files.isEmpty()) {
+        System.err.println("No puzzle files found.");
+        return;
+      }
+      Files.createDirectories(output);
+      System.out.println(solveAll(files, output, threads, timeoutSeconds, TimeUnit.SECONDS));
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Finds the puzzle files for an input
+   * 
+   * @param input a directory, or a glob whose last part matches file names
+   * @return every file in the directory or matching the glob, sorted by name
+   * @throws IOException if the directory can't be read
+   */
+  public static List<Path> findFiles(String input) throws IOException {
+    Path path = Paths.get(input);
+    Path dir;
+    String glob;
+    if (Files.isDirectory(path)) {
+      dir = path;
+      glob = "*";
+    } else {
+      dir = path.getParent() == null ? Paths.get(".") : path.getParent();
+      glob = path.getFileName().toString();
+    }
+    List<Path> ret = new ArrayList<Path>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+      for (Path file : stream) {
+        if (Files.isRegularFile(file))
+          ret.add(file);
+      }
+    }
+    Collections.sort(ret);
+    return ret;
+  }
+
+  /**
+   * Solves puzzle files on a pool of worker threads, writing each solution to the output directory.
+   * Each puzzle may take the default timeout.
+   * 
+   * @param files puzzle files to solve
+   * @param output directory to write solutions to
+   * @param threads number of worker threads
+   * @return summary of the batch
+   */
+  public static Summary solveAll(List<Path> files, Path output, int threads) {
+    return solveAll(files, output, threads, defaultTimeoutSeconds, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Solves puzzle files on a pool of worker threads, writing each solution to the output directory
+   * 
+   * @param files puzzle files to solve
+   * @param output directory to write solutions to
+   * @param threads number of worker threads
+   * @param timeout time each puzzle may take to solve before it counts as failed
+   * @param unit unit of the timeout
+   * @return summary of the batch
+   */
+  public static Summary solveAll(List<Path> files, final Path output, int threads,
+      final long timeout, final TimeUnit unit) {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    long start = System.nanoTime();
+    try {
+      List<Future<Long>> results = new ArrayList<Future<Long>>(files.size());
+      for (final Path file : files) {
+        results.add(pool.submit(new Callable<Long>() {
+          @Override
+          public Long call() throws IOException, TimeoutException {
+            return solveFile(file, output, timeout, unit);
+          }
+        }));
+      }
+
+      long[] latencies = new long[files.size()];
+      int solved = 0;
+      List<Failure> failures = new ArrayList<Failure>();
+      for (int i = 0; i < files.size(); i++) {
+        try {
+          latencies[solved] = results.get(i).get();
+          solved++;
+        } catch (ExecutionException e) {
+          failures.add(new Failure(files.get(i), e.getCause()));
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          failures.add(new Failure(files.get(i), e));
+        }
+      }
+      return new Summary(Arrays.copyOf(latencies, solved), failures, System.nanoTime() - start);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Solves one puzzle file and writes its solution
+   * 
+   * @param file puzzle file
+   * @param output directory to write the solution to
+   * @param timeout time the puzzle may take to solve
+   * @param unit unit of the timeout
+   * @return nanoseconds taken to parse and solve
+   * @throws PuzzleFormatException if the file doesn't hold a puzzle
+   * @throws IOException if the file can't be read or the solution can't be written
+   * @throws IllegalStateException if the puzzle has no solution
+   * @throws TimeoutException if the puzzle isn't solved in time
+   */
+  private static long solveFile(Path file, Path output, long timeout, TimeUnit unit)
+      throws IOException, IllegalStateException, TimeoutException {
+    long start = System.nanoTime();
+    Puzzle p;
+    try (PuzzleParser parser = new PuzzleParser(FileChannel.open(file))) {
+      p = parser.next();
+    }
+    if (p == null)
+      throw new PuzzleFormatException(1, "no puzzle in file");
+    SolveResult result = HybridSolver.solve(p, new SolveOptions().timeout(timeout, unit));
+    if (result.status == SolveResult.Status.TIMEOUT)
+      throw new TimeoutException("Not solved within " + timeout + " " + unit.name().toLowerCase());
+    if (!result.isSolved())
+      throw new IllegalStateException("Puzzle cannot be solved!");
+    long latency = System.nanoTime() - start;
+    String name = file.getFileName().toString().replaceFirst("\\.txt$", "");
+    writeBoard(result.board, output.resolve(name + ".solution.txt"));
+    return latency;
+  }
+
+  /**
+   * Writes a board as FileHandler.printBoardToFile does, but lets a failed write through so the
+   * puzzle isn't counted as solved
+   * 
+   * @param p solved puzzle
+   * @param file file to create or overwrite
+   * @throws IOException if the file can't be written
+   */
+  private static void writeBoard(Puzzle p, Path file) throws IOException {
+    List<String> lines = new ArrayList<String>(p.rows);
+    StringBuilder sb = new StringBuilder(p.cols);
+    for (int pos = 0; pos < p.rows * p.cols; pos++) {
+      sb.append(FileHandler.translate(p.getSquare(pos)));
+      if ((pos + 1) % p.cols == 0) {
+        lines.add(sb.toString());
+        sb.setLength(0);
+      }
+    }
+    Files.write(file, lines, FileHandler.utf8);
+  }
+
+  /**
+   * A puzzle file that couldn't be solved, and why
+   */
+  public static class Failure {
+    public final Path file;
+    public final String message;
+
+    Failure(Path file, Throwable cause) {
+      this.file = file;
+      this.message = cause.getMessage() != null ? cause.getMessage() : cause.toString();
+    }
+
+    @Override
+    public String toString() {
+      return file + ": " + message;
+    }
+  }
+
+  /**
+   * Throughput and latency of a batch
+   */
+  public static class Summary {
+    // Latencies of solved puzzles in nanoseconds, sorted
+    private final long[] latencies;
+    public final List<Failure> failures;
+    public final long elapsedNanos;
+
+    Summary(long[] latencies, List<Failure> failures, long elapsedNanos) {
+      this.latencies = latencies;
+      Arrays.sort(this.latencies);
+      this.failures = failures;
+      this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of puzzles solved
+     * 
+     * @return puzzles solved and written
+     */
+    public int solved() {
+      return latencies.length;
+    }
+
+    /**
+     * Gets the rate puzzles were solved at, over the whole batch
+     * 
+     * @return solved puzzles per second of wall clock time
+     */
+    public double puzzlesPerSecond() {
+      return elapsedNanos == 0 ? 0 : latencies.length * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Gets a latency percentile by nearest rank
+     * 
+     * @param percent percentile between 0 and 100
+     * @return latency in nanoseconds, 0 if nothing was solved
+     */
+    public long percentile(double percent) {
+      if (latencies.length == 0)
+        return 0;
+      int rank = (int) Math.ceil(percent / 100 * latencies.length);
+      return latencies[Math.min(Math.max(rank, 1), latencies.length) - 1];
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(String.format("Solved %d, failed %d in %.3f s (%.1f puzzles/s)%n", solved(),
+          failures.size(), elapsedNanos / 1e9, puzzlesPerSecond()));
+      sb.append(String.format("Latency p50 %.3f ms, p95 %.3f ms, p99 %.3f ms", percentile(50) / 1e6,
+          percentile(95) / 1e6, percentile(99) / 1e6));
+      for (Failure failure : failures) {
+        sb.append(String.format("%nFailed: %s", failure));
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import solver.HybridSolver;
+
+/**
+ * @author coatrain
+ *
+ */
+public class BatchSolverTest {
+
+  /**
+   * Test method for {@link ui.BatchSolver#findFiles(java.lang.String)}.
+   * @throws IOException throws if no test files found
+   */
+  @Test
+  public void testFindFiles() throws IOException {
+    List<Path> files = BatchSolver.findFiles("testPuzzles/multi*.txt");
+    assertTrue(files.size() == 2);
+    assertTrue(files.get(0).getFileName().toString().equals("multi2x2.txt"));
+    assertTrue(BatchSolver.findFiles("testPuzzles").size() > 2);
+  }
+
+  /**
+   * Test method for {@link ui.BatchSolver#solveAll(java.util.List, java.nio.file.Path, int)}.
+   * @throws IOException throws if no test files found
+   */
+  @Test
+  public void testSolveAll() throws IOException {
+    Path output = Files.createTempDirectory("solutions");
+    List<Path> files = Arrays.asList(Paths.get("testPuzzles/5x5.txt"),
+        Paths.get("testPuzzles/multi2x2.txt"), Paths.get("testPuzzles/probe7x5.txt"),
+        Paths.get("testPuzzles/5x5Solution.txt"), Paths.get("testPuzzles/missing.txt"));
+    BatchSolver.Summary summary = BatchSolver.solveAll(files, output, 2);
+    assertEquals(3, summary.solved());
+    assertEquals(2, summary.failures.size());
+    // A solution file isn't a puzzle, and the reason is kept with the path
+    BatchSolver.Failure failure = summary.failures.get(0);
+    assertEquals(files.get(3), failure.file);
+    assertTrue(failure.message.startsWith("Line 1:"));
+    assertEquals(files.get(4), summary.failures.get(1).file);
+    assertTrue(summary.toString().contains("Failed: " + failure));
+
+    assertEquals(Files.readAllLines(Paths.get("testPuzzles/5x5Solution.txt"), FileHandler.utf8),
+        Files.readAllLines(output.resolve("5x5.solution.txt"), FileHandler.utf8));
+    Puzzle multi = HybridSolver.findSolution(FileHandler.getFilePuzzle("testPuzzles/multi2x2.txt"));
+    assertTrue(Arrays.equals(multi.getBoard(),
+        FileHandler.getFileBoard(output.resolve("multi2x2.solution.txt").toString())));
+    assertTrue(Files.exists(output.resolve("probe7x5.solution.txt")));
+    assertEquals(3, BatchSolver.findFiles(output.toString()).size());
+    assertTrue(summary.percentile(50) <= summary.percentile(99));
+    assertTrue(summary.percentile(99) > 0);
+    assertTrue(summary.puzzlesPerSecond() > 0);
+    for (Path file : BatchSolver.findFiles(output.toString())) {
+      Files.delete(file);
+    }
+    Files.delete(output);
+  }
+
+  /**
+   * Test method for
+   * {@link ui.BatchSolver#solveAll(java.util.List, java.nio.file.Path, int, long, TimeUnit)} when
+   * puzzles run out of time or their solutions can't be written.
+   * @throws IOException throws if the temporary file can't be created
+   */
+  @Test
+  public void testSolveAllFailures() throws IOException {
+    List<Path> files = Arrays.asList(Paths.get("testPuzzles/5x5.txt"));
+    Path output = Files.createTempDirectory("solutions");
+    BatchSolver.Summary summary = BatchSolver.solveAll(files, output, 1, 0, TimeUnit.SECONDS);
+    assertEquals(0, summary.solved());
+    assertTrue(summary.failures.get(0).message.startsWith("Not solved within"));
+    assertEquals(0, BatchSolver.findFiles(output.toString()).size());
+    Files.delete(output);
+
+    // A file in place of the output directory can't be written to
+    output = Files.createTempFile("solutions", ".txt");
+    summary = BatchSolver.solveAll(files, output, 1);
+    assertEquals(0, summary.solved());
+    assertEquals(files.get(0), summary.failures.get(0).file);
+    Files.delete(output);
+  }
+}
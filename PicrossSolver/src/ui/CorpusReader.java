@@ -0,0 +1,193 @@
+package ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+
+/**
+ * Reads puzzles from a corpus file written by CorpusWriter. The file is memory mapped, and the
+ * index gives where each puzzle's record starts, so any puzzle can be read in O(1) without
+ * parsing the others. Files larger than one mapping allows are mapped in segments that overlap by
+ * the longest record, so every record lies wholly inside the segment it starts in. Reads don't
+ * change any shared state, so an open reader can be used by many threads. The trailer and index
+ * are checked against the file's size when it is opened, and every read of a record is bounded by
+ * the record's length, so a corrupt file gives an exception instead of reading past a record.
+ * 
+ * @author coatrain
+ * 
+ */
+public class CorpusReader implements Closeable {
+
+  public static final int defaultSegmentLength = 1 << 30;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer[] segments;
+  private final int segmentLength;
+  private final long index;
+  private final int count;
+  private final int maxRecord;
+
+  /**
+   * Opens a corpus file
+   * 
+   * @param file location of the corpus
+   * @throws IOException if the file can't be read or isn't a corpus
+   */
+  public CorpusReader(Path file) throws IOException {
+    this(file, defaultSegmentLength);
+  }
+
+  /**
+   * Opens a corpus file, mapping it in segments of a given length
+   * 
+   * @param file location of the corpus
+   * @param segmentLength bytes each segment starts after the previous one
+   * @throws IOException if the file can't be read or isn't a corpus
+   */
+  CorpusReader(Path file, int segmentLength) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      if (size < CorpusWriter.headerLength + CorpusWriter.trailerLength)
+        throw new IOException("Not a puzzle corpus: " + file);
+      MappedByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY,
+          size - CorpusWriter.trailerLength, CorpusWriter.trailerLength);
+      index = trailer.getLong();
+      count = trailer.getInt();
+      maxRecord = trailer.getInt();
+      // The index has to sit right before the trailer, and records between the header and it
+      if (count < 0 || index < CorpusWriter.headerLength || index > size
+          || index + 8L * (count + 1L) != size - CorpusWriter.trailerLength || maxRecord < 0
+          || maxRecord > index - CorpusWriter.headerLength
+          || (long) segmentLength + maxRecord > Integer.MAX_VALUE)
+        throw new IOException("Corrupt puzzle corpus: " + file);
+
+      // Segments overlap so any record, or any long in the index, can be read from one segment
+      this.segmentLength = segmentLength;
+      int overlap = Math.max(maxRecord, 8);
+      segments = new MappedByteBuffer[(int) ((size + segmentLength - 1) / segmentLength)];
+      for (int i = 0; i < segments.length; i++) {
+        long start = (long) i * segmentLength;
+        segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+            Math.min(size - start, (long) segmentLength + overlap));
+      }
+      if (segments[0].getInt(0) != CorpusWriter.magic)
+        throw new IOException("Not a puzzle corpus: " + file);
+      if (segments[0].get(4) != CorpusWriter.version)
+        throw new IOException("Unsupported corpus version: " + segments[0].get(4));
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Gets the number of puzzles in the corpus
+   * 
+   * @return number of puzzles
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Reads the numbers of one puzzle
+   * 
+   * @param n index of the puzzle, from 0 to size() - 1
+   * @return the puzzle's numbers
+   * @throws IndexOutOfBoundsException if there is no puzzle n
+   * @throws IllegalStateException if the puzzle's record is corrupt, or its numbers can't be solved
+   */
+  public Clues getClues(int n) throws IndexOutOfBoundsException, IllegalStateException {
+    if (n < 0 || n >= count)
+      throw new IndexOutOfBoundsException("Puzzle " + n + " of " + count);
+    long start = getLong(index + 8L * n);
+    long end = getLong(index + 8L * (n + 1));
+    // Records lie between the header and the index, and none is longer than the segment overlap
+    if (start < CorpusWriter.headerLength || end < start || end > index || end - start > maxRecord)
+      throw corrupt(n);
+    int length = (int) (end - start);
+    ByteBuffer record = segments[(int) (start / segmentLength)].duplicate();
+    int from = (int) (start % segmentLength);
+    record.limit(from + length);
+    record.position(from);
+
+    int rows = getVarint(record);
+    int cols = getVarint(record);
+    // Every count and number takes at least a byte, so the record length bounds how many there are
+    if (rows < 0 || cols < 0 || (long) rows + cols > length)
+      throw corrupt(n);
+    int[] counts = new int[rows + cols];
+    int[] nums = new int[length];
+    int size = 0;
+    for (int l = 0; l < counts.length; l++) {
+      counts[l] = getVarint(record);
+      if (counts[l] < 0 || counts[l] > record.remaining())
+        throw corrupt(n);
+      for (int i = 0; i < counts[l]; i++) {
+        int num = getVarint(record);
+        if (num < 0)
+          throw corrupt(n);
+        nums[size++] = num;
+      }
+    }
+    if (record.hasRemaining())
+      throw corrupt(n);
+    return Clues.fromArrays(rows, cols, counts, nums);
+  }
+
+  /**
+   * Reads one puzzle, with a blank board
+   * 
+   * @param n index of the puzzle, from 0 to size() - 1
+   * @return the puzzle
+   * @throws IndexOutOfBoundsException if there is no puzzle n
+   * @throws IllegalStateException if the puzzle's record is corrupt, or its numbers can't be solved
+   */
+  public Puzzle getPuzzle(int n) throws IndexOutOfBoundsException, IllegalStateException {
+    return new Puzzle(getClues(n), false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Reads a big endian long at a file position
+   */
+  private long getLong(long position) {
+    return segments[(int) (position / segmentLength)].getLong((int) (position % segmentLength));
+  }
+
+  /**
+   * Creates the exception thrown for a corrupt record
+   */
+  private static IllegalStateException corrupt(int n) {
+    return new IllegalStateException("Corrupt record for puzzle " + n);
+  }
+
+  /**
+   * Reads an unsigned LEB128 varint at the buffer's position, advancing past it. Returns -1 if the
+   * varint runs past the buffer's limit, is longer than 5 bytes, or doesn't fit in an int.
+   */
+  private static int getVarint(ByteBuffer buffer) {
+    int ret = 0;
+    for (int shift = 0; shift <= 28; shift += 7) {
+      if (!buffer.hasRemaining())
+        return -1;
+      byte b = buffer.get();
+      ret |= (b & 0x7F) << shift;
+      if (b >= 0)
+        return shift == 28 && (b & 0x78) != 0 ? -1 : ret;
+    }
+    return -1;
+  }
+}
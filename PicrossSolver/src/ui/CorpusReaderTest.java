@@ -0,0 +1,190 @@
+package ui;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+
+/**
+ * @author coatrain
+ *
+ */
+public class CorpusReaderTest {
+
+  /**
+   * Writes every puzzle in the test directory to a corpus
+   */
+  private List<Puzzle> writeCorpus(Path file) throws IOException {
+    List<Puzzle> puzzles = new ArrayList<Puzzle>();
+    for (Path text : BatchSolver.findFiles("testPuzzles/*.txt")) {
+      if (!text.getFileName().toString().contains("Solution"))
+        puzzles.add(FileHandler.getFilePuzzle(text.toString()));
+    }
+    try (CorpusWriter writer = new CorpusWriter(file)) {
+      for (Puzzle p : puzzles) {
+        writer.add(p.clues);
+      }
+      assertTrue(writer.size() == puzzles.size());
+    }
+    return puzzles;
+  }
+
+  /**
+   * Test method for {@link ui.CorpusReader#getPuzzle(int)}.
+   * @throws IOException throws if the corpus can't be written
+   */
+  @Test
+  public void testGetPuzzle() throws IOException {
+    Path file = Files.createTempFile("corpus", ".bin");
+    try {
+      List<Puzzle> puzzles = writeCorpus(file);
+      // One mapping, then segments shorter than a record
+      for (int segmentLength : new int[] {CorpusReader.defaultSegmentLength, 7}) {
+        try (CorpusReader reader = new CorpusReader(file, segmentLength)) {
+          assertTrue(reader.size() == puzzles.size());
+          // Read out of order
+          for (int i = puzzles.size() - 1; i >= 0; i--) {
+            assertTrue(reader.getPuzzle(i).equals(puzzles.get(i)));
+            assertTrue(reader.getClues(i).equals(puzzles.get(i).clues));
+          }
+          try {
+            reader.getClues(puzzles.size());
+            fail();
+          } catch (IndexOutOfBoundsException e) {
+            // Past the last puzzle
+          }
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test method for {@link ui.CorpusWriter#addAll(PuzzleParser)}.
+   * @throws IOException throws if the corpus can't be written
+   */
+  @Test
+  public void testAddAll() throws IOException {
+    Path file = Files.createTempFile("corpus", ".bin");
+    Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+    String text = new String(Files.readAllBytes(Paths.get("testPuzzles/5x5.txt")),
+        StandardCharsets.UTF_8);
+    try {
+      try (CorpusWriter writer = new CorpusWriter(file)) {
+        // Every puzzle in the text is added, and those before an error are kept
+        assertEquals(2, writer.addAll(new PuzzleParser(
+            new ByteArrayInputStream((text + "\n" + text).getBytes(StandardCharsets.UTF_8)))));
+        try {
+          writer.addAll(new PuzzleParser(
+              new ByteArrayInputStream((text + "\nx\n").getBytes(StandardCharsets.UTF_8))));
+          fail();
+        } catch (PuzzleFormatException e) {
+          assertTrue(e.line > 1);
+        }
+      }
+      try (CorpusReader reader = new CorpusReader(file)) {
+        assertEquals(3, reader.size());
+        for (int i = 0; i < reader.size(); i++) {
+          assertTrue(reader.getPuzzle(i).equals(small));
+        }
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Test method for {@link ui.CorpusReader#getClues(int)} with corrupt records and a corrupt
+   * trailer.
+   * @throws IOException throws if the corpus can't be written
+   */
+  @Test
+  public void testCorrupt() throws IOException {
+    Path file = Files.createTempFile("corpus", ".bin");
+    try {
+      writeCorpus(file);
+      byte[] bytes = Files.readAllBytes(file);
+
+      // A varint longer than 5 bytes, and a row count larger than the record
+      byte[] corrupt = bytes.clone();
+      for (int i = 0; i < 6; i++) {
+        corrupt[CorpusWriter.headerLength + i] = (byte) 0xFF;
+      }
+      Files.write(file, corrupt);
+      assertCorrupt(file, 0);
+      corrupt = bytes.clone();
+      corrupt[CorpusWriter.headerLength] = 0x7F;
+      Files.write(file, corrupt);
+      assertCorrupt(file, 0);
+
+      // A record running into the next one
+      corrupt = bytes.clone();
+      ByteBuffer trailer = ByteBuffer.wrap(corrupt, corrupt.length - CorpusWriter.trailerLength,
+          CorpusWriter.trailerLength);
+      long index = trailer.getLong();
+      ByteBuffer.wrap(corrupt).putLong((int) index + 8, CorpusWriter.headerLength + 200);
+      Files.write(file, corrupt);
+      assertCorrupt(file, 0);
+
+      // A count that doesn't match the size of the index
+      corrupt = bytes.clone();
+      ByteBuffer.wrap(corrupt).putInt(corrupt.length - 8, Integer.MAX_VALUE);
+      Files.write(file, corrupt);
+      try {
+        new CorpusReader(file).close();
+        fail();
+      } catch (IOException e) {
+        // Index doesn't fit in the file
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  /**
+   * Checks reading a puzzle from a corpus fails as corrupt
+   */
+  private void assertCorrupt(Path file, int n) throws IOException {
+    try (CorpusReader reader = new CorpusReader(file)) {
+      reader.getClues(n);
+      fail();
+    } catch (IllegalStateException e) {
+      // Corrupt record
+    }
+  }
+
+  /**
+   * Test method for {@link ui.CorpusReader#CorpusReader(java.nio.file.Path)} with a file that isn't
+   * a corpus.
+   * @throws IOException throws if the file can't be written
+   */
+  @Test
+  public void testNotCorpus() throws IOException {
+    Path file = Files.createTempFile("corpus", ".bin");
+    try {
+      Files.write(file, new byte[32]);
+      try {
+        new CorpusReader(file).close();
+        fail();
+      } catch (IOException e) {
+        // Wrong magic number
+      }
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
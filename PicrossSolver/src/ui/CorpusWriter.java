@@ -0,0 +1,186 @@
+package ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import puzzle.Clues;
+
+/**
+ * Writes many puzzles into one binary corpus file, which CorpusReader can open any puzzle of
+ * without reading the others. The file starts with the magic number and version, followed by each
+ * puzzle's record, then an index of where every record starts, then a trailer:
+ * 
+ * record: rows, cols, then for each row and then each column its count of numbers and the numbers,
+ * all as unsigned LEB128 varints
+ * 
+ * index: count + 1 big endian longs, the file position of each record and of the end of the last
+ * 
+ * trailer: long position of the index, int count, int length of the longest record
+ * 
+ * Running main converts text puzzle files, in the format read by PuzzleParser, into a corpus. Every
+ * puzzle of a file holding several is converted. Usage: CorpusWriter input output, where input is a
+ * directory or a glob.
+ * 
+ * @author coatrain
+ * 
+ */
+public class CorpusWriter implements Closeable {
+
+  public static final int magic = 0x50494352; // "PICR"
+  public static final byte version = 1;
+  public static final int headerLength = 5;
+  public static final int trailerLength = 16;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+  // Position in the file of the next byte written, including what is still buffered
+  private long position = 0;
+  private long[] offsets = new long[1024];
+  private int count = 0;
+  private int maxRecord = 0;
+
+  public static void main(String[] args) {
+    if (args.length < 2) {
+      System.err.println("Usage: CorpusWriter input output");
+      return;
+    }
+    try (CorpusWriter writer = new CorpusWriter(Paths.get(args[1]))) {
+      List<Path> files = BatchSolver.findFiles(args[0]);
+      for (Path file : files) {
+        try (PuzzleParser parser = new PuzzleParser(FileChannel.open(file))) {
+          writer.addAll(parser);
+        } catch (PuzzleFormatException e) {
+          // Puzzles before the error are kept
+          System.err.println(file + ": " + e.getMessage());
+        }
+      }
+      System.out.println("Wrote " + writer.size() + " puzzles to " + args[1]);
+    } catch (IOException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Creates a corpus file, overwriting any file at the location
+   * 
+   * @param file location of the corpus
+   * @throws IOException if the file can't be created
+   */
+  public CorpusWriter(Path file) throws IOException {
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    buffer.putInt(magic);
+    buffer.put(version);
+    position = headerLength;
+  }
+
+  /**
+   * Appends a puzzle's numbers to the corpus
+   * 
+   * @param clues numbers of the puzzle
+   * @throws IOException if the file can't be written
+   */
+  public void add(Clues clues) throws IOException {
+    if (count + 1 >= offsets.length)
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    long start = position;
+    offsets[count++] = start;
+    putVarint(clues.rows);
+    putVarint(clues.cols);
+    for (int l = 0; l < clues.lines(); l++) {
+      putVarint(clues.count(l));
+      for (int i = 0; i < clues.count(l); i++) {
+        putVarint(clues.get(l, i));
+      }
+    }
+    maxRecord = (int) Math.max(maxRecord, position - start);
+  }
+
+  /**
+   * Appends the numbers of every puzzle a parser has left
+   * 
+   * @param parser parser of puzzle text
+   * @return number of puzzles added
+   * @throws PuzzleFormatException if the text isn't a puzzle, after adding the puzzles before it
+   * @throws IOException if the text can't be read or the file can't be written
+   */
+  public int addAll(PuzzleParser parser) throws IOException {
+    int added = 0;
+    for (Clues clues = parser.nextClues(); clues != null; clues = parser.nextClues()) {
+      add(clues);
+      added++;
+    }
+    return added;
+  }
+
+  /**
+   * Gets the number of puzzles written so far
+   * 
+   * @return number of puzzles
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * Writes the index and trailer and closes the file
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      offsets[count] = position;
+      long index = position;
+      for (int i = 0; i <= count; i++) {
+        ensure(8);
+        buffer.putLong(offsets[i]);
+      }
+      ensure(trailerLength);
+      buffer.putLong(index);
+      buffer.putInt(count);
+      buffer.putInt(maxRecord);
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Buffers an unsigned LEB128 varint, 7 bits per byte with the high bit set on all but the last
+   */
+  private void putVarint(int value) throws IOException {
+    ensure(5);
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+      position++;
+    }
+    buffer.put((byte) value);
+    position++;
+  }
+
+  /**
+   * Flushes the buffer if it has less than the given number of bytes free
+   */
+  private void ensure(int bytes) throws IOException {
+    if (buffer.remaining() < bytes)
+      flush();
+  }
+
+  /**
+   * Writes everything buffered to the file
+   */
+  private void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+}
@@ -1,6 +1,7 @@
 package ui;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -58,8 +59,8 @@ public class FileHandler {
       // Create an initialize a stringbuilder to hold each line
       StringBuilder sb = new StringBuilder(p.cols);
       // Fill lines by rows of board
-      for (int i = 0; i < p.getBoard().length; i++) {
-        sb.append(translate(p.getBoard()[i]));
+      for (int i = 0; i < p.rows * p.cols; i++) {
+        sb.append(translate(p.getSquare(i)));
         // Check if we've reached the end of the current row
         if ((i + 1) % p.cols == 0) {
           lines.add(sb.toString());
@@ -119,7 +120,7 @@ public class FileHandler {
     // Add row and col nums
     lines.add(p.rows + " " + p.cols);
     // Break row arraylist into lines and space separated integers
-    for (ArrayList<Integer> list : p.rowNums) {
+    for (List<Integer> list : p.rowNums) {
       // Instantiate with first number
       StringBuilder sb = new StringBuilder(list.get(0).toString());
       for (int i = 1; i < list.size(); i++) {
@@ -131,7 +132,7 @@ public class FileHandler {
     }
 
     // Do the same with columns
-    for (ArrayList<Integer> list : p.colNums) {
+    for (List<Integer> list : p.colNums) {
       StringBuilder sb = new StringBuilder(list.get(0).toString());
       for (int i = 1; i < list.size(); i++) {
         sb.append(" " + list.get(i));
@@ -151,67 +152,20 @@ public class FileHandler {
    * Parses a puzzle from given text file First line of file should have number of rows, a space,
    * then number of columns Following lines should have rows then columns. The numbers which specify
    * the squares to be filled in should be given left to right, or up to down and space separated.
+   * Anything after the last column is ignored.
    * 
    * @param fileLocation location of the file
-   * @return a puzzle with a blank board matching the file, or null if cannot be parsed to a puzzle
+   * @return a puzzle with a blank board matching the file, or null if cannot be parsed to a puzzle.
+   *         Use PuzzleParser directly to find out why a file can't be parsed.
    */
   public static Puzzle getFilePuzzle(String fileLocation) {
-    try {
-      List<String> lines = Files.readAllLines(Paths.get(fileLocation), utf8);
-      // First line says how many rows, then columns
-      String[] line = lines.get(0).split("\\s");
-      int rows = Integer.parseInt(line[0]);
-      int cols = Integer.parseInt(line[1]);
-      ArrayList<ArrayList<Integer>> rowNums = new ArrayList<ArrayList<Integer>>(rows);
-      ArrayList<ArrayList<Integer>> colNums = new ArrayList<ArrayList<Integer>>(cols);
-
-      // Next rows lines specify numbers on row for puzzle
-      for (int i = 1; i < rows + 1; i++) {
-        // Create row list for numbers
-        ArrayList<Integer> currentRow = new ArrayList<Integer>();
-        // Split line into individual numbers
-        // Handle case where consecutive last lines are empty
-        if (lines.size() < i + 1) {
-          rowNums.add(currentRow);
-          continue;
-        }
-        line = lines.get(i).split("\\s");
-        // Add numbers to row
-        for (String s : line) {
-          // Handle empty line (no filled-in squares on line)
-          if (!s.equals("")) {
-            // Only add if number > 0
-            int found = Integer.parseInt(s);
-            if (found > 0)
-              currentRow.add(found);
-          }
-        }
-        // Add row to row list
-        rowNums.add(currentRow);
-      }
-
-      // then next cols lines specify numbers on the columns
-      for (int i = rows + 1; i < rows + cols + 1; i++) {
-        // Do the same for columns
-        ArrayList<Integer> currentCol = new ArrayList<Integer>();
-        if (lines.size() < i + 1) {
-          colNums.add(currentCol);
-          continue;
-        }
-        line = lines.get(i).split("\\s");
-
-        for (String s : line) {
-          if (!s.equals(""))
-            currentCol.add(Integer.parseInt(s));
-        }
-        colNums.add(currentCol);
-      }
-
-      return new Puzzle(colNums, rowNums);
+    // Only the first puzzle is parsed, so text after it is never read
+    try (PuzzleParser parser = new PuzzleParser(FileChannel.open(Paths.get(fileLocation)))) {
+      return parser.next();
     } catch (IOException e) {
-      e.printStackTrace();
+      // Missing, unreadable or malformed file
+      return null;
     }
-    return null;
   }
 
   /**
@@ -0,0 +1,25 @@
+package ui;
+
+import java.io.IOException;
+
+/**
+ * Thrown when text being parsed as a puzzle isn't in the puzzle format
+ * 
+ * @author coatrain
+ * 
+ */
+public class PuzzleFormatException extends IOException {
+
+  private static final long serialVersionUID = 1L;
+
+  public final int line;
+
+  /**
+   * @param line line number of the error, starting from 1
+   * @param message description of the error
+   */
+  public PuzzleFormatException(int line, String message) {
+    super("Line " + line + ": " + message);
+    this.line = line;
+  }
+}
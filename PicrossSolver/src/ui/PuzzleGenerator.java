@@ -0,0 +1,304 @@
+package ui;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+import solver.LineCache;
+import solver.SolveOptions;
+import solver.UniquenessChecker;
+
+/**
+ * Generates reproducible random puzzles. Puzzle n is made from a random board seeded by the
+ * generator's seed and n alone, so any puzzle can be generated again on its own, and corpora come
+ * out the same however many threads generate them. With uniqueOnly set, boards whose numbers have
+ * more than one solution are thrown away and the next attempt for the same n is tried. Each
+ * uniqueness check gets a budget of guesses, and boards that can't be shown unique within it are
+ * thrown away too, so one hard board can't hold up a thread.
+ * 
+ * Running main writes a corpus in the text format, with puzzles one after another, and in the
+ * binary corpus format. Usage: PuzzleGenerator rows cols density count [-seed n] [-unique]
+ * [-budget guesses] [-text file] [-binary file] [-threads n]
+ * 
+ * @author coatrain
+ * 
+ */
+public class PuzzleGenerator {
+
+  // Most boards tried for one puzzle before giving up on finding a unique one
+  public static final int maxAttempts = 1000;
+  // Most guesses a uniqueness check makes before the board is thrown away
+  public static final long defaultNodeBudget = 10000;
+  // Puzzles each task generates before they are written
+  private static final int chunk = 1024;
+
+  private final int rows;
+  private final int cols;
+  private final double density;
+  private final long seed;
+  private final boolean uniqueOnly;
+  // Shared by every check, it only holds limits
+  private final SolveOptions uniqueOptions;
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4) {
+      System.err.println("Usage: PuzzleGenerator rows cols density count [-seed n] [-unique]"
+          + " [-budget guesses] [-text file] [-binary file] [-threads n]");
+      return;
+    }
+    long seed = 0;
+    boolean unique = false;
+    long budget = defaultNodeBudget;
+    Path text = null;
+    Path binary = null;
+    int threads = Runtime.getRuntime().availableProcessors();
+    for (int i = 4; i < args.length; i++) {
+      if (args[i].equals("-unique"))
+        unique = true;
+      else if (args[i].equals("-seed"))
+        seed = Long.parseLong(args[++i]);
+      else if (args[i].equals("-budget"))
+        budget = Long.parseLong(args[++i]);
+      else if (args[i].equals("-text"))
+        text = Paths.get(args[++i]);
+      else if (args[i].equals("-binary"))
+        binary = Paths.get(args[++i]);
+      else if (args[i].equals("-threads"))
+        threads = Integer.parseInt(args[++i]);
+      else
+        throw new IllegalArgumentException("Unknown option " + args[i]);
+    }
+    PuzzleGenerator generator = new PuzzleGenerator(Integer.parseInt(args[0]),
+        Integer.parseInt(args[1]), Double.parseDouble(args[2]), seed, unique, budget);
+    long start = System.nanoTime();
+    int written = generator.writeCorpus(Integer.parseInt(args[3]), text, binary, threads);
+    System.out.printf("Wrote %d puzzles in %.3f s%n", written, (System.nanoTime() - start) / 1e9);
+  }
+
+  /**
+   * @param rows number of rows of each puzzle
+   * @param cols number of columns of each puzzle
+   * @param density chance of each square being filled in
+   * @param seed seed of the whole corpus
+   * @param uniqueOnly whether to only generate puzzles with one solution
+   */
+  public PuzzleGenerator(int rows, int cols, double density, long seed, boolean uniqueOnly) {
+    this(rows, cols, density, seed, uniqueOnly, defaultNodeBudget);
+  }
+
+  /**
+   * @param rows number of rows of each puzzle
+   * @param cols number of columns of each puzzle
+   * @param density chance of each square being filled in
+   * @param seed seed of the whole corpus
+   * @param uniqueOnly whether to only generate puzzles with one solution
+   * @param nodeBudget most guesses each uniqueness check makes before the board is thrown away
+   */
+  public PuzzleGenerator(int rows, int cols, double density, long seed, boolean uniqueOnly,
+      long nodeBudget) {
+    this.rows = rows;
+    this.cols = cols;
+    this.density = density;
+    this.seed = seed;
+    this.uniqueOnly = uniqueOnly;
+    uniqueOptions = new SolveOptions().nodeBudget(nodeBudget);
+  }
+
+  /**
+   * Generates a random board
+   * 
+   * @param index index of the puzzle the board is for
+   * @param attempt how many boards were already thrown away for this puzzle
+   * @return board with each square 1 or 2
+   */
+  public int[] board(long index, int attempt) {
+    long state = mix(mix(seed + index * 0x9E3779B97F4A7C15L) + attempt);
+    int[] ret = new int[rows * cols];
+    for (int pos = 0; pos < ret.length; pos++) {
+      state += 0x9E3779B97F4A7C15L;
+      // Top 53 bits of the mixed state as a double in [0, 1)
+      ret[pos] = (mix(state) >>> 11) * 0x1.0p-53 < density ? 1 : 2;
+    }
+    return ret;
+  }
+
+  /**
+   * Generates a puzzle
+   * 
+   * @param index index of the puzzle
+   * @param cache cache of solved lines for checking uniqueness, or null to not cache
+   * @return a puzzle with a blank board, or null if uniqueOnly is set and no unique puzzle was found
+   *         in maxAttempts boards
+   */
+  public Puzzle generate(long index, LineCache cache) {
+    Clues clues = generateClues(index, cache);
+    return clues == null ? null : new Puzzle(clues, false);
+  }
+
+  /**
+   * Generates the numbers of a puzzle
+   * 
+   * @param index index of the puzzle
+   * @param cache cache of solved lines for checking uniqueness, or null to not cache
+   * @return the puzzle's numbers, or null if uniqueOnly is set and no puzzle was shown unique in
+   *         maxAttempts boards
+   */
+  public Clues generateClues(long index, LineCache cache) {
+    for (int attempt = 0; attempt < maxAttempts; attempt++) {
+      Clues clues = boardClues(board(index, attempt));
+      // Boards whose check runs out of budget count as not unique
+      if (!uniqueOnly || UniquenessChecker.check(new Puzzle(clues, false), cache, uniqueOptions)
+          .status == UniquenessChecker.Status.UNIQUE)
+        return clues;
+    }
+    return null;
+  }
+
+  /**
+   * Finds the numbers of a board straight into flat storage, without making lists
+   */
+  private Clues boardClues(int[] board) {
+    int[] counts = new int[rows + cols];
+    // A line of n squares has at most (n + 1) / 2 numbers
+    int[] nums = new int[rows * ((cols + 1) / 2) + cols * ((rows + 1) / 2)];
+    int size = 0;
+    for (int l = 0; l < rows + cols; l++) {
+      int length = l < rows ? cols : rows;
+      int first = l < rows ? l * cols : l - rows;
+      int step = l < rows ? 1 : cols;
+      int run = 0;
+      for (int i = 0; i <= length; i++) {
+        if (i < length && board[first + i * step] == 1) {
+          run++;
+        } else if (run > 0) {
+          nums[size++] = run;
+          counts[l]++;
+          run = 0;
+        }
+      }
+    }
+    return Clues.fromArrays(rows, cols, counts, nums);
+  }
+
+  /**
+   * Generates puzzles 0 to count - 1 on a pool of threads and writes them in order. Puzzles that
+   * couldn't be generated are skipped. If a chunk fails or a file can't be written, the chunks still
+   * running are interrupted.
+   * 
+   * @param count number of puzzles to generate
+   * @param text file to write puzzles to in the text format, or null to not write text
+   * @param binary file to write puzzles to in the binary corpus format, or null to not write one
+   * @param threads number of threads to generate with
+   * @return number of puzzles written
+   * @throws IOException if a file can't be written
+   */
+  public int writeCorpus(int count, Path text, Path binary, int threads) throws IOException {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    boolean finished = false;
+    try (Writer textWriter =
+        text == null ? null : Files.newBufferedWriter(text, StandardCharsets.UTF_8);
+        CorpusWriter binaryWriter = binary == null ? null : new CorpusWriter(binary)) {
+      int written = 0;
+      // Generate a window of chunks at a time, so memory doesn't grow with the corpus
+      int window = threads * 4 * chunk;
+      for (int start = 0; start < count; start += window) {
+        List<Future<Clues[]>> chunks = new ArrayList<Future<Clues[]>>();
+        for (int from = start; from < Math.min(count, start + window); from += chunk) {
+          final int first = from;
+          final int last = Math.min(count, from + chunk);
+          chunks.add(pool.submit(new Callable<Clues[]>() {
+            @Override
+            public Clues[] call() throws InterruptedException {
+              LineCache cache = uniqueOnly ? new LineCache(1 << 12) : null;
+              Clues[] ret = new Clues[last - first];
+              for (int i = first; i < last; i++) {
+                if (Thread.currentThread().isInterrupted())
+                  throw new InterruptedException();
+                ret[i - first] = generateClues(i, cache);
+              }
+              return ret;
+            }
+          }));
+        }
+        for (Future<Clues[]> future : chunks) {
+          for (Clues clues : get(future)) {
+            if (clues == null)
+              continue;
+            if (textWriter != null)
+              writeText(textWriter, clues);
+            if (binaryWriter != null)
+              binaryWriter.add(clues);
+            written++;
+          }
+        }
+      }
+      finished = true;
+      return written;
+    } finally {
+      if (finished)
+        pool.shutdown();
+      else
+        pool.shutdownNow();
+    }
+  }
+
+  /**
+   * Waits for a chunk of puzzles
+   */
+  private static Clues[] get(Future<Clues[]> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while generating", e);
+    } catch (ExecutionException e) {
+      throw new IOException("Failed generating", e.getCause());
+    }
+  }
+
+  /**
+   * Writes a puzzle in the text format, followed by a blank line. Lines without numbers are
+   * written as 0.
+   * 
+   * @param out writer to write to
+   * @param clues numbers of the puzzle
+   * @throws IOException if the puzzle can't be written
+   */
+  public static void writeText(Writer out, Clues clues) throws IOException {
+    // Build the whole puzzle first, since writers lock on every call
+    StringBuilder sb = new StringBuilder(4 * clues.lines());
+    sb.append(clues.rows).append(' ').append(clues.cols).append('\n');
+    for (int l = 0; l < clues.lines(); l++) {
+      if (clues.count(l) == 0)
+        sb.append('0');
+      for (int i = 0; i < clues.count(l); i++) {
+        if (i > 0)
+          sb.append(' ');
+        sb.append(clues.get(l, i));
+      }
+      sb.append('\n');
+    }
+    out.append(sb.append('\n'));
+  }
+
+  /**
+   * SplitMix64 finalizer, spreading the bits of a value over the whole long
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,112 @@
+package ui;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+import solver.DeductiveSolver;
+import solver.PuzzleVerifier;
+import solver.UniquenessChecker;
+
+/**
+ * @author coatrain
+ *
+ */
+public class PuzzleGeneratorTest {
+
+  /**
+   * Test method for {@link ui.PuzzleGenerator#board(long, int)}.
+   */
+  @Test
+  public void testBoard() {
+    PuzzleGenerator generator = new PuzzleGenerator(10, 8, 0.5, 7, false);
+    // Same seed and index give the same board
+    assertTrue(Arrays.equals(generator.board(3, 0), generator.board(3, 0)));
+    assertTrue(Arrays.equals(generator.board(3, 0),
+        new PuzzleGenerator(10, 8, 0.5, 7, false).board(3, 0)));
+    assertFalse(Arrays.equals(generator.board(3, 0), generator.board(4, 0)));
+    assertFalse(Arrays.equals(generator.board(3, 0), generator.board(3, 1)));
+    assertFalse(Arrays.equals(generator.board(3, 0),
+        new PuzzleGenerator(10, 8, 0.5, 8, false).board(3, 0)));
+
+    int[] full = new PuzzleGenerator(4, 4, 1, 0, false).board(0, 0);
+    int[] empty = new PuzzleGenerator(4, 4, 0, 0, false).board(0, 0);
+    for (int pos = 0; pos < 16; pos++) {
+      assertTrue(full[pos] == 1 && empty[pos] == 2);
+    }
+  }
+
+  /**
+   * Test method for {@link ui.PuzzleGenerator#generate(long, solver.LineCache)}.
+   */
+  @Test
+  public void testGenerate() {
+    PuzzleGenerator generator = new PuzzleGenerator(6, 6, 0.5, 1, true);
+    for (int i = 0; i < 20; i++) {
+      Puzzle p = generator.generate(i, null);
+      assertTrue(UniquenessChecker.isUnique(p));
+      // Board is left blank
+      assertTrue(p.getFirstBlankPos() == 0);
+    }
+    // The generated board solves its own numbers
+    Puzzle p = new PuzzleGenerator(6, 6, 0.5, 1, false).generate(2, null);
+    p.setBoard(new PuzzleGenerator(6, 6, 0.5, 1, false).board(2, 0));
+    assertTrue(PuzzleVerifier.matchesFull(p));
+  }
+
+  /**
+   * Test method for {@link ui.PuzzleGenerator#generate(long, solver.LineCache)} with a budget of
+   * guesses for each uniqueness check.
+   */
+  @Test
+  public void testGenerateBudget() {
+    // With no guesses allowed, only boards that propagation alone solves are kept
+    PuzzleGenerator generator = new PuzzleGenerator(8, 8, 0.5, 1, true, 0);
+    for (int i = 0; i < 10; i++) {
+      Puzzle p = generator.generate(i, null);
+      assertTrue(PuzzleVerifier.matchesFull(DeductiveSolver.findSolution(p.createCopy())));
+    }
+  }
+
+  /**
+   * Test method for
+   * {@link ui.PuzzleGenerator#writeCorpus(int, java.nio.file.Path, java.nio.file.Path, int)}.
+   * @throws IOException throws if the corpus can't be written
+   */
+  @Test
+  public void testWriteCorpus() throws IOException {
+    Path text = Files.createTempFile("corpus", ".txt");
+    Path binary = Files.createTempFile("corpus", ".bin");
+    Path other = Files.createTempFile("corpus", ".bin");
+    try {
+      PuzzleGenerator generator = new PuzzleGenerator(5, 7, 0.4, 3, false);
+      assertTrue(generator.writeCorpus(2500, text, binary, 3) == 2500);
+      // Same corpus on one thread
+      assertTrue(generator.writeCorpus(2500, null, other, 1) == 2500);
+      assertTrue(Arrays.equals(Files.readAllBytes(binary), Files.readAllBytes(other)));
+
+      try (PuzzleParser parser = new PuzzleParser(Files.newInputStream(text));
+          CorpusReader reader = new CorpusReader(binary)) {
+        assertTrue(reader.size() == 2500);
+        for (int i = 0; i < 2500; i++) {
+          Puzzle p = parser.next();
+          assertTrue(p.equals(generator.generate(i, null)));
+          assertTrue(p.clues.equals(reader.getClues(i)));
+        }
+        assertNull(parser.next());
+      }
+    } finally {
+      Files.delete(text);
+      Files.delete(binary);
+      Files.delete(other);
+    }
+  }
+}
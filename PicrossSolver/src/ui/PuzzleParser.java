@@ -0,0 +1,172 @@
+package ui;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import puzzle.Clues;
+import puzzle.Puzzle;
+
+/**
+ * Streaming parser for the text puzzle format read by FileHandler. Bytes are read through one
+ * reusable buffer and numbers are scanned by hand straight into primitive arrays, so no strings or
+ * boxed numbers are created. A stream may hold several puzzles one after another, with blank lines
+ * between them allowed. Each puzzle is a line with the number of rows and columns, then a line of
+ * numbers for each row, then for each column. A line that is blank or 0 has no numbers, and lines
+ * missing at the end of the stream count as blank.
+ * 
+ * @author coatrain
+ * 
+ */
+public class PuzzleParser implements Closeable {
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+  private boolean end = false;
+  // Number of the line last read, starting from 1
+  private int lineNumber = 0;
+
+  // Numbers read for the current puzzle, reused between puzzles
+  private int[] nums = new int[64];
+  private int size = 0;
+
+  /**
+   * Creates a parser reading from a stream
+   * 
+   * @param in stream of puzzle text
+   */
+  public PuzzleParser(InputStream in) {
+    this(Channels.newChannel(in));
+  }
+
+  /**
+   * Creates a parser reading from a channel
+   * 
+   * @param channel channel of puzzle text
+   */
+  public PuzzleParser(ReadableByteChannel channel) {
+    this.channel = channel;
+    buffer.flip();
+  }
+
+  /**
+   * Parses the numbers of the next puzzle
+   * 
+   * @return the puzzle's numbers, or null if there are no more puzzles
+   * @throws PuzzleFormatException if the text isn't a puzzle, or its numbers can't be solved
+   * @throws IOException if the text can't be read
+   */
+  public Clues nextClues() throws IOException {
+    // Skip blank lines between puzzles
+    size = 0;
+    int count;
+    do {
+      count = readLine();
+      if (count < 0)
+        return null;
+    } while (count == 0);
+    int header = lineNumber;
+    if (count != 2 || nums[0] <= 0 || nums[1] <= 0)
+      throw new PuzzleFormatException(header, "expected number of rows and columns");
+    int rows = nums[0];
+    int cols = nums[1];
+
+    int[] counts = new int[rows + cols];
+    size = 0;
+    for (int l = 0; l < counts.length; l++) {
+      counts[l] = Math.max(readLine(), 0);
+    }
+    try {
+      return Clues.fromArrays(rows, cols, counts, nums);
+    } catch (IllegalStateException e) {
+      throw new PuzzleFormatException(header, e.getMessage());
+    }
+  }
+
+  /**
+   * Parses the next puzzle
+   * 
+   * @return the puzzle with a blank board, or null if there are no more puzzles
+   * @throws PuzzleFormatException if the text isn't a puzzle, or its numbers can't be solved
+   * @throws IOException if the text can't be read
+   */
+  public Puzzle next() throws IOException {
+    Clues clues = nextClues();
+    return clues == null ? null : new Puzzle(clues, false);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Reads the numbers on the next line, adding them to nums. Numbers that are 0 are skipped.
+   * 
+   * @return how many numbers were added, or -1 if the stream has ended
+   * @throws PuzzleFormatException if the line has something other than numbers and whitespace
+   */
+  private int readLine() throws IOException {
+    if (end)
+      return -1;
+    int start = size;
+    int c = read();
+    if (c < 0) {
+      end = true;
+      return -1;
+    }
+    lineNumber++;
+    while (c >= 0 && c != '\n') {
+      if (c >= '0' && c <= '9') {
+        int num = 0;
+        while (c >= '0' && c <= '9') {
+          if (num > (Integer.MAX_VALUE - (c - '0')) / 10)
+            throw new PuzzleFormatException(lineNumber, "number too large");
+          num = num * 10 + c - '0';
+          c = read();
+        }
+        if (num > 0)
+          add(num);
+        continue;
+      }
+      if (c != ' ' && c != '\t' && c != '\r')
+        throw new PuzzleFormatException(lineNumber, "unexpected character '" + (char) c + "'");
+      c = read();
+    }
+    if (c < 0)
+      end = true;
+    return size - start;
+  }
+
+  /**
+   * Adds a number to nums, growing it if needed
+   */
+  private void add(int num) {
+    if (size == nums.length)
+      nums = Arrays.copyOf(nums, size * 2);
+    nums[size++] = num;
+  }
+
+  /**
+   * Reads the next byte, refilling the buffer when it runs out
+   * 
+   * @return the byte, or -1 at the end of the stream
+   */
+  private int read() throws IOException {
+    if (!buffer.hasRemaining()) {
+      buffer.clear();
+      int read;
+      do {
+        read = channel.read(buffer);
+      } while (read == 0);
+      buffer.flip();
+      if (read < 0)
+        return -1;
+    }
+    return buffer.get() & 0xFF;
+  }
+}
@@ -0,0 +1,88 @@
+package ui;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+
+/**
+ * @author coatrain
+ *
+ */
+public class PuzzleParserTest {
+
+  /**
+   * Creates a parser over the given text
+   */
+  private PuzzleParser parser(String text) {
+    return new PuzzleParser(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * Test method for {@link ui.PuzzleParser#next()}.
+   * @throws IOException throws if no test files found
+   */
+  @Test
+  public void testNext() throws IOException {
+    // Same puzzles as the test files, with text after them ignored
+    Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+    Puzzle partial = FileHandler.getFilePuzzle("testPuzzles/partial.txt");
+    assertTrue(small.rowNums.get(1).size() == 2);
+    assertTrue(partial.rowNums.get(1).isEmpty());
+    assertTrue(FileHandler.getFilePuzzle("testPuzzles/emptyTest.txt").rowNums.get(0).isEmpty());
+
+    // Several puzzles in one stream, with blank lines between and 0 for no numbers
+    String text = new String(Files.readAllBytes(Paths.get("testPuzzles/5x5.txt")),
+        StandardCharsets.UTF_8);
+    try (PuzzleParser parser = parser(text + "\r\n\r\n  \n1 2\n1\n0\n1\n\n" + text)) {
+      assertTrue(parser.next().equals(small));
+      Puzzle p = parser.next();
+      assertTrue(p.rows == 1 && p.cols == 2);
+      assertTrue(p.colNums.get(0).isEmpty());
+      assertTrue(p.colNums.get(1).size() == 1);
+      assertTrue(parser.next().equals(small));
+      assertNull(parser.next());
+      assertNull(parser.next());
+    }
+
+    // Missing lines at the end are blank
+    try (PuzzleParser parser = parser("2 2\n\t1 \n0\n1")) {
+      Puzzle p = parser.next();
+      assertTrue(p.rowNums.get(0).size() == 1);
+      assertTrue(p.rowNums.get(1).isEmpty());
+      assertTrue(p.colNums.get(1).isEmpty());
+      assertNull(parser.next());
+    }
+    assertNull(parser("").next());
+  }
+
+  /**
+   * Test method for {@link ui.PuzzleParser#next()} with text that isn't a puzzle.
+   * @throws IOException throws if the text can't be read
+   */
+  @Test
+  public void testNextInvalid() throws IOException {
+    String[] texts = {"5\n", "1 1\n1\nx\n", "1 1\n1\n1\n\nSolutions:\n", "1 1\n99999999999\n1\n",
+        "2 2\n1\n1\n1\n2\n"};
+    int[] lines = {1, 3, 5, 2, 1};
+    for (int i = 0; i < texts.length; i++) {
+      try (PuzzleParser parser = parser(texts[i])) {
+        while (parser.next() != null) {
+          // Parse until the error
+        }
+        fail();
+      } catch (PuzzleFormatException e) {
+        assertTrue(e.line == lines[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,262 @@
+package ui;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+import puzzle.Puzzle;
+
+/**
+ * Appends solved boards to one channel through a single reusable buffer, so writing many boards
+ * creates no strings or objects per row. Boards can be written in one of three formats:
+ * 
+ * TEXT: the block text printed by FileHandler, a row per line, with a blank line after each board
+ * 
+ * BINARY: rows and cols as unsigned LEB128 varints, then one bit per square in board order, least
+ * significant bit first, padded to a whole byte. Filled in squares are 1, all others 0.
+ * 
+ * RLE: run length encoded text, as used for cellular automata patterns. A line "x = cols, y =
+ * rows", then a line of runs, where "3o" is three filled in squares and "2b" two blank squares, a
+ * count of 1 is left out, $ ends a row and ! ends the board. Blank squares at the end of a row are
+ * left out.
+ * 
+ * @author coatrain
+ * 
+ */
+public class SolutionWriter implements Closeable, Flushable {
+
+  /**
+   * Format boards are written in
+   */
+  public enum Format {
+    TEXT, BINARY, RLE
+  }
+
+  private static final byte[] block = String.valueOf(FileHandler.translate(1))
+      .getBytes(StandardCharsets.UTF_8);
+  private static final byte[] newLine = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+  private final WritableByteChannel channel;
+  private final Format format;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+  private long boards = 0;
+
+  /**
+   * Creates a writer appending to a stream
+   * 
+   * @param out stream to write boards to
+   * @param format format to write boards in
+   */
+  public SolutionWriter(OutputStream out, Format format) {
+    this(Channels.newChannel(out), format);
+  }
+
+  /**
+   * Creates a writer appending to a channel
+   * 
+   * @param channel channel to write boards to
+   * @param format format to write boards in
+   */
+  public SolutionWriter(WritableByteChannel channel, Format format) {
+    this.channel = channel;
+    this.format = format;
+  }
+
+  /**
+   * Appends a puzzle's board
+   * 
+   * @param p given puzzle
+   * @throws IOException if the channel can't be written
+   */
+  public void write(Puzzle p) throws IOException {
+    if (format == Format.TEXT)
+      writeText(p);
+    else if (format == Format.BINARY)
+      writeBinary(p);
+    else
+      writeRle(p);
+    boards++;
+  }
+
+  /**
+   * Gets the number of boards written
+   * 
+   * @return number of boards
+   */
+  public long boards() {
+    return boards;
+  }
+
+  /**
+   * Writes everything buffered to the channel
+   */
+  @Override
+  public void flush() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * Flushes and closes the channel
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+    } finally {
+      channel.close();
+    }
+  }
+
+  /**
+   * Writes block text, a row per line
+   */
+  private void writeText(Puzzle p) throws IOException {
+    int pos = 0;
+    for (int row = 0; row < p.rows; row++) {
+      for (int col = 0; col < p.cols; col++) {
+        if (p.getSquare(pos++) == 1)
+          put(block);
+        else
+          put((byte) ' ');
+      }
+      put(newLine);
+    }
+    put(newLine);
+  }
+
+  /**
+   * Writes the size, then a bit per square
+   */
+  private void writeBinary(Puzzle p) throws IOException {
+    putVarint(p.rows);
+    putVarint(p.cols);
+    int squares = p.rows * p.cols;
+    int bits = 0;
+    for (int pos = 0; pos < squares; pos++) {
+      if (p.getSquare(pos) == 1)
+        bits |= 1 << (pos & 7);
+      if ((pos & 7) == 7) {
+        put((byte) bits);
+        bits = 0;
+      }
+    }
+    if ((squares & 7) != 0)
+      put((byte) bits);
+  }
+
+  /**
+   * Writes the size, then runs of filled in and blank squares
+   */
+  private void writeRle(Puzzle p) throws IOException {
+    putAscii("x = ");
+    putInt(p.cols);
+    putAscii(", y = ");
+    putInt(p.rows);
+    put(newLine);
+    // Rows ended with nothing filled in are only written once a later row has a run
+    int emptyRows = 0;
+    for (int row = 0; row < p.rows; row++) {
+      int first = row * p.cols;
+      int col = 0;
+      boolean started = false;
+      while (col < p.cols) {
+        boolean filled = p.getSquare(first + col) == 1;
+        int run = 1;
+        while (col + run < p.cols && (p.getSquare(first + col + run) == 1) == filled) {
+          run++;
+        }
+        col += run;
+        // Leave out blank squares at the end of the row
+        if (!filled && col == p.cols)
+          break;
+        if (!started) {
+          started = true;
+          putRowEnds(emptyRows);
+          emptyRows = 0;
+        }
+        if (run > 1)
+          putInt(run);
+        put((byte) (filled ? 'o' : 'b'));
+      }
+      emptyRows++;
+    }
+    put((byte) '!');
+    put(newLine);
+  }
+
+  /**
+   * Writes the ends of a number of rows, as n$ or $
+   */
+  private void putRowEnds(int rows) throws IOException {
+    if (rows > 1)
+      putInt(rows);
+    if (rows > 0)
+      put((byte) '$');
+  }
+
+  /**
+   * Writes an unsigned LEB128 varint
+   */
+  private void putVarint(int value) throws IOException {
+    ensure(5);
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  /**
+   * Writes a non-negative int as decimal digits, without creating a string
+   */
+  private void putInt(int value) throws IOException {
+    ensure(10);
+    int digits = 1;
+    for (int v = value; v >= 10; v /= 10) {
+      digits++;
+    }
+    int end = buffer.position() + digits;
+    for (int i = end - 1; i >= end - digits; i--) {
+      buffer.put(i, (byte) ('0' + value % 10));
+      value /= 10;
+    }
+    buffer.position(end);
+  }
+
+  /**
+   * Writes a string of ASCII characters
+   */
+  private void putAscii(String s) throws IOException {
+    ensure(s.length());
+    for (int i = 0; i < s.length(); i++) {
+      buffer.put((byte) s.charAt(i));
+    }
+  }
+
+  private void put(byte b) throws IOException {
+    ensure(1);
+    buffer.put(b);
+  }
+
+  private void put(byte[] bytes) throws IOException {
+    ensure(bytes.length);
+    buffer.put(bytes);
+  }
+
+  /**
+   * Flushes the buffer if it has less than the given number of bytes free
+   */
+  private void ensure(int bytes) throws IOException {
+    if (buffer.remaining() < bytes)
+      flush();
+  }
+}
@@ -0,0 +1,96 @@
+package ui;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Test;
+
+import puzzle.Puzzle;
+
+/**
+ * @author coatrain
+ *
+ */
+public class SolutionWriterTest {
+  Puzzle small = FileHandler.getFilePuzzle("testPuzzles/5x5.txt");
+  int[] smallSol = {
+      1,1,1,2,2,
+      1,2,1,1,1,
+      2,2,2,1,1,
+      1,2,2,2,1,
+      1,1,2,2,2};
+  String n = System.lineSeparator();
+
+  /**
+   * Writes the small solution twice in a format
+   */
+  private byte[] write(SolutionWriter.Format format) throws IOException {
+    small.setBoard(smallSol);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (SolutionWriter writer = new SolutionWriter(out, format)) {
+      writer.write(small);
+      writer.write(small);
+      assertTrue(writer.boards() == 2);
+    }
+    return out.toByteArray();
+  }
+
+  /**
+   * Test method for {@link ui.SolutionWriter#write(puzzle.Puzzle)} with block text.
+   * @throws IOException throws if no test files found
+   */
+  @Test
+  public void testWriteText() throws IOException {
+    String text = new String(write(SolutionWriter.Format.TEXT), StandardCharsets.UTF_8);
+    String expected = new String(Files.readAllBytes(Paths.get("testPuzzles/5x5Solution.txt")),
+        StandardCharsets.UTF_8).replace("\r\n", n) + n + n;
+    assertTrue(text.equals(expected + expected));
+  }
+
+  /**
+   * Test method for {@link ui.SolutionWriter#write(puzzle.Puzzle)} with bit packed binary.
+   * @throws IOException throws if the board can't be written
+   */
+  @Test
+  public void testWriteBinary() throws IOException {
+    byte[] bytes = write(SolutionWriter.Format.BINARY);
+    // Size, then 25 squares in 4 bytes
+    assertTrue(bytes.length == 12);
+    for (int board = 0; board < 2; board++) {
+      int start = board * 6;
+      assertTrue(bytes[start] == 5 && bytes[start + 1] == 5);
+      for (int pos = 0; pos < 25; pos++) {
+        int bit = (bytes[start + 2 + pos / 8] >> (pos % 8)) & 1;
+        assertTrue(bit == (smallSol[pos] == 1 ? 1 : 0));
+      }
+    }
+  }
+
+  /**
+   * Test method for {@link ui.SolutionWriter#write(puzzle.Puzzle)} with run length encoding.
+   * @throws IOException throws if the board can't be written
+   */
+  @Test
+  public void testWriteRle() throws IOException {
+    String text = new String(write(SolutionWriter.Format.RLE), StandardCharsets.UTF_8);
+    String expected = "x = 5, y = 5" + n + "3o$ob3o$3b2o$o3bo$2o!" + n;
+    assertTrue(text.equals(expected + expected));
+
+    // Empty rows are counted together, and trailing ones left out
+    Puzzle p = FileHandler.getFilePuzzle("testPuzzles/partial.txt");
+    p.setBoard(new int[] {1,1, 2,2, 2,1, 1,2});
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (SolutionWriter writer = new SolutionWriter(out, SolutionWriter.Format.RLE)) {
+      writer.write(p);
+      p.setBoard(new int[] {1,2, 2,2, 2,2, 2,2});
+      writer.write(p);
+    }
+    text = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    assertTrue(text.equals("x = 2, y = 4" + n + "2o2$bo$o!" + n + "x = 2, y = 4" + n + "o!" + n));
+  }
+}